@@ -27,6 +27,12 @@ public class Lore implements Iterable<TextHolder> {
         this.meta = meta;
         this.lore = (CompHolder.isNativeAdventureSupport()) ? lore(meta) : getLore(meta);
     }
+    @Contract(pure = true)
+    public Lore(@NotNull TextHolder @NotNull [] lore) {
+        this.meta = null;
+        this.lore = lore;
+    }
+
     @Contract(pure = true)
     public Lore(@NotNull Lore lore) {
         this.meta = lore.meta;
@@ -88,6 +94,20 @@ public class Lore implements Iterable<TextHolder> {
         if (setMeta) itemStack.setItemMeta(meta);
     }
 
+    /**
+     * Replace the lore of the item with this lore, components are kept on platforms supporting them.
+     * @param itemStack the item to set the lore of
+     */
+    public void setItemLore(@NotNull ItemStack itemStack) {
+        ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) return;
+        if (CompHolder.isNativeAdventureSupport()) meta.lore(null);
+        else meta.setLore(null);
+
+        for (TextHolder textHolder : lore) textHolder.asItemLoreAtEnd(meta);
+        itemStack.setItemMeta(meta);
+    }
+
     public void copyFrom(TextHolder[] newLore) {
         this.lore = newLore;
     }
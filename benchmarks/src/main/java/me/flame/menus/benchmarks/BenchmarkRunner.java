@@ -0,0 +1,33 @@
+package me.flame.menus.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark with the GC profiler, reporting ops/s and the bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ * <p>
+ * Any JMH command line option can be passed, e.g. {@code java -jar benchmarks.jar ClickBenchmark -f 1}.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) options.include(BenchmarkRunner.class.getPackage().getName() + "\\..*Benchmark");
+
+        new Runner(options
+                .addProfiler(GCProfiler.class)
+                .warmupIterations(commandLine.getWarmupIterations().orElse(3))
+                .measurementIterations(commandLine.getMeasurementIterations().orElse(5))
+                .forks(commandLine.getForkCount().orElse(1))
+                .build()).run();
+    }
+}
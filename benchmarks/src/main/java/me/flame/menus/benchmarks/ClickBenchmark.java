@@ -0,0 +1,65 @@
+package me.flame.menus.benchmarks;
+
+import me.flame.menus.benchmarks.headless.HeadlessServer;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.ActionResponse;
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.MenuListeners;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of a click through {@link MenuListeners#onInventoryClick(InventoryClickEvent)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClickBenchmark {
+    private MenuListeners listeners;
+    private InventoryClickEvent itemClick, emptyClick, bottomClick;
+
+    @Setup
+    public void setup() {
+        HeadlessServer server = HeadlessServer.install();
+        Menu menu = Menu.create("Click", 6);
+        for (int slot = 0; slot < 45; slot++) {
+            menu.setItem(slot, MenuItem.of(new ItemStack(Material.STONE), (clicked, event) -> ActionResponse.DONE));
+        }
+
+        Player player = server.createPlayer("clicker");
+        menu.open(player);
+        this.listeners = server.listeners();
+
+        this.itemClick = HeadlessServer.click(player, 13, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        this.emptyClick = HeadlessServer.click(player, 49, ClickType.LEFT, InventoryAction.NOTHING);
+        this.bottomClick = HeadlessServer.click(player, 60, ClickType.SHIFT_LEFT, InventoryAction.MOVE_TO_OTHER_INVENTORY);
+    }
+
+    @Benchmark
+    public void clickItem(Blackhole blackhole) {
+        listeners.onInventoryClick(itemClick);
+        blackhole.consume(itemClick.getResult());
+    }
+
+    @Benchmark
+    public void clickEmptySlot(Blackhole blackhole) {
+        listeners.onInventoryClick(emptyClick);
+        blackhole.consume(emptyClick.getResult());
+    }
+
+    @Benchmark
+    public void clickBottomInventory(Blackhole blackhole) {
+        listeners.onInventoryClick(bottomClick);
+        blackhole.consume(bottomClick.getResult());
+    }
+}
@@ -0,0 +1,61 @@
+package me.flame.menus.benchmarks;
+
+import me.flame.menus.benchmarks.headless.HeadlessServer;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.PaginatedMenu;
+import me.flame.menus.menu.fillers.Filler;
+import me.flame.menus.menu.fillers.PageDecoration;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorating menus with {@link Filler} and paginated menus with {@link PageDecoration}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FillerBenchmark {
+    @Param({ "20" })
+    public int pages;
+
+    private Menu menu;
+    private Filler filler;
+    private PageDecoration decoration;
+    private MenuItem border, background;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.menu = Menu.create("Filler", 6);
+        this.filler = menu.getFiller(Filler.class);
+        this.decoration = PaginatedMenu.create("Decoration", 6, pages).getPageDecorator();
+        this.border = MenuItem.of(new ItemStack(Material.BLACK_STAINED_GLASS_PANE));
+        this.background = MenuItem.of(new ItemStack(Material.GRAY_STAINED_GLASS_PANE));
+    }
+
+    @Benchmark
+    public void fillBorders() {
+        filler.fillBorders(border);
+    }
+
+    /**
+     * Includes clearing the menu, filling only touches empty slots.
+     */
+    @Benchmark
+    public void clearAndFill() {
+        menu.clear();
+        filler.fill(background);
+    }
+
+    @Benchmark
+    public void decorateBordersOfEveryPage() {
+        decoration.fillBorders(border);
+        decoration.fillBorders(background);
+    }
+}
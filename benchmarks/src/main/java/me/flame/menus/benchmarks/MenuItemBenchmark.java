@@ -0,0 +1,37 @@
+package me.flame.menus.benchmarks;
+
+import me.flame.menus.benchmarks.headless.HeadlessServer;
+import me.flame.menus.items.MenuItem;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wrapping an item stack with {@link MenuItem#of(ItemStack)}, which stamps the item id onto the stack.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MenuItemBenchmark {
+    private ItemStack stack;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.stack = new ItemStack(Material.DIAMOND_SWORD);
+    }
+
+    @Benchmark
+    public MenuItem wrapNewStack() {
+        return MenuItem.of(new ItemStack(Material.DIAMOND_SWORD));
+    }
+
+    @Benchmark
+    public MenuItem wrapExistingStack() {
+        return MenuItem.of(stack);
+    }
+}
@@ -0,0 +1,53 @@
+package me.flame.menus.benchmarks;
+
+import me.flame.menus.benchmarks.headless.HeadlessServer;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.PaginatedMenu;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning the pages of an opened {@link PaginatedMenu}, with pages created up front or built by a page source.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PaginationBenchmark {
+    @Param({ "eager", "source" })
+    public String pages;
+
+    @Param({ "50" })
+    public int pageCount;
+
+    private PaginatedMenu menu;
+
+    @Setup
+    public void setup() {
+        HeadlessServer server = HeadlessServer.install();
+        MenuItem[] items = new MenuItem[45];
+        for (int slot = 0; slot < items.length; slot++) items[slot] = MenuItem.of(new ItemStack(Material.PAPER));
+
+        if (pages.equals("source")) {
+            this.menu = PaginatedMenu.create("Pagination", 6, pageCount, page -> items.clone());
+        } else {
+            this.menu = PaginatedMenu.create("Pagination", 6, pageCount);
+            for (int page = 0; page < pageCount; page++) menu.getPage(page).addItem(items);
+        }
+        menu.setNextPageItem(53, MenuItem.of(new ItemStack(Material.ARROW)));
+        menu.setPreviousPageItem(45, MenuItem.of(new ItemStack(Material.ARROW)));
+
+        Player player = server.createPlayer("reader");
+        menu.open(player);
+    }
+
+    @Benchmark
+    public boolean next() {
+        return menu.next() || menu.page(0);
+    }
+}
@@ -0,0 +1,56 @@
+package me.flame.menus.benchmarks;
+
+import me.flame.menus.benchmarks.headless.HeadlessServer;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.ItemData;
+import me.flame.menus.menu.Menu;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushing menu contents into the inventory: every slot with {@link ItemData#recreateItems(Inventory)}
+ * against only the changed ones with {@link Menu#updateChanges()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RecreateItemsBenchmark {
+    @Param({ "3", "6" })
+    public int rows;
+
+    private Menu menu;
+    private ItemData data;
+    private Inventory inventory;
+    private MenuItem first, second;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.menu = Menu.create("Recreate", rows);
+        for (int slot = 0; slot < menu.size(); slot++) menu.setItem(slot, MenuItem.of(new ItemStack(Material.STONE)));
+
+        this.data = menu.getData();
+        this.inventory = menu.getInventory();
+        this.first = MenuItem.of(new ItemStack(Material.DIAMOND));
+        this.second = MenuItem.of(new ItemStack(Material.EMERALD));
+    }
+
+    @Benchmark
+    public void recreateAllSlots() {
+        data.recreateItems(inventory);
+    }
+
+    @Benchmark
+    public void updateOneChangedSlot() {
+        flip = !flip;
+        menu.setItem(4, flip ? first : second);
+        menu.updateChanges();
+    }
+}
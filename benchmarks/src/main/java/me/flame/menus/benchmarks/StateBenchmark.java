@@ -0,0 +1,63 @@
+package me.flame.menus.benchmarks;
+
+import me.flame.menus.benchmarks.headless.HeadlessServer;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.items.states.State;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * Refreshing the lore of an item through {@link State#update()}.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StateBenchmark {
+    private State changing, constant;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        this.changing = State.of("%score%", (IntSupplier) () -> counter++, createItem());
+        this.constant = State.of("%score%", "1000", createItem());
+    }
+
+    private static MenuItem createItem() {
+        ItemStack stack = new ItemStack(Material.PLAYER_HEAD);
+        ItemMeta meta = stack.getItemMeta();
+        meta.setDisplayName("Leaderboard");
+        meta.setLore(Arrays.asList(
+                "Top players of the season",
+                "",
+                "Score: %score% points",
+                "Rank up at %score% + 100",
+                "Click to view details"
+        ));
+        stack.setItemMeta(meta);
+        return MenuItem.of(stack);
+    }
+
+    @Benchmark
+    public void updateChangedValue() {
+        changing.update();
+    }
+
+    @Benchmark
+    public void updateUnchangedValue() {
+        constant.update();
+    }
+}
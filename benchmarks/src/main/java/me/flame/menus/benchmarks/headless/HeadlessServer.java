@@ -0,0 +1,271 @@
+package me.flame.menus.benchmarks.headless;
+
+import me.flame.menus.menu.MenuListeners;
+import me.flame.menus.util.PluginProvider;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitScheduler;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * An in-process stand-in for the parts of a Bukkit server WoodyMenus touches: inventories, item metas,
+ * the scheduler, the plugin manager and players.
+ * <p>
+ * Nothing is networked or persisted; players receive the inventory events a server would fire,
+ * and the scheduler only advances when {@link #tick()} is called.
+ */
+public final class HeadlessServer {
+    private static HeadlessServer instance;
+
+    private final Logger logger = Logger.getLogger("WoodyBenchmarks");
+    private final StandInScheduler scheduler = new StandInScheduler();
+    private final BukkitScheduler bukkitScheduler = StandInScheduler.create(scheduler);
+    private final ItemFactory itemFactory = Proxies.create(ItemFactory.class, this::invokeItemFactory);
+    private final PluginManager pluginManager = Proxies.create(PluginManager.class, this::invokePluginManager);
+    private final Plugin plugin = Proxies.create(Plugin.class, this::invokePlugin);
+    private final Server server = Proxies.create(Server.class, this::invokeServer);
+    private final List<Player> players = new ArrayList<>();
+
+    private MenuListeners listeners;
+
+    private HeadlessServer() {}
+
+    /**
+     * Install the stand-in as the Bukkit server, once per JVM.
+     * @return the installed server
+     */
+    @NotNull
+    public static synchronized HeadlessServer install() {
+        if (instance != null) return instance;
+        HeadlessServer headless = new HeadlessServer();
+        Bukkit.setServer(headless.server);
+        PluginProvider.provide(headless.plugin);
+        return instance = headless;
+    }
+
+    /**
+     * Run the tasks due this tick on the stand-in scheduler.
+     */
+    public void tick() {
+        scheduler.tick();
+    }
+
+    public int pendingTasks() {
+        return scheduler.pending();
+    }
+
+    /**
+     * Get the listeners WoodyMenus registered, they're only registered once the first menu class is initialized.
+     * @return the menu listeners
+     */
+    @NotNull
+    public MenuListeners listeners() {
+        if (listeners == null) throw new IllegalStateException("No menu has been created yet, the menu listeners aren't registered.");
+        return listeners;
+    }
+
+    @NotNull
+    public Player createPlayer(@NotNull String name) {
+        PlayerHandler handler = new PlayerHandler(name);
+        Player player = Proxies.create(Player.class, handler);
+        handler.player = player;
+        handler.inventory = StandInInventory.createPlayerInventory(player);
+        players.add(player);
+        return player;
+    }
+
+    /**
+     * Create the event of the player clicking the raw slot of the inventory they're viewing.
+     * @return the event, ready to be passed to {@link MenuListeners#onInventoryClick(InventoryClickEvent)}
+     */
+    @NotNull
+    public static InventoryClickEvent click(@NotNull Player player, int rawSlot, @NotNull ClickType click, @NotNull InventoryAction action) {
+        InventoryView view = player.getOpenInventory();
+        InventoryType.SlotType type = rawSlot < view.getTopInventory().getSize()
+                ? InventoryType.SlotType.CONTAINER
+                : InventoryType.SlotType.QUICKBAR;
+        return new InventoryClickEvent(view, type, rawSlot, click, action);
+    }
+
+    /**
+     * Get the amount of {@link Inventory#setItem(int, ItemStack)} calls the stand-in inventory received.
+     * @param inventory an inventory created by this server
+     * @return the amount of slot writes
+     */
+    public static long slotWrites(@NotNull Inventory inventory) {
+        return StandInInventory.handler(inventory).getWrites();
+    }
+
+    private Object invokeServer(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getLogger":
+                return logger;
+            case "getName":
+                return "WoodyBenchmarks";
+            case "getVersion":
+                return "stand-in";
+            case "getBukkitVersion":
+                return "1.16.5-R0.1-SNAPSHOT";
+            case "getItemFactory":
+                return itemFactory;
+            case "getScheduler":
+                return bukkitScheduler;
+            case "getPluginManager":
+                return pluginManager;
+            case "getOnlinePlayers":
+                return new ArrayList<>(players);
+            case "isPrimaryThread":
+                return true;
+            case "createInventory": {
+                InventoryHolder holder = (InventoryHolder) args[0];
+                if (args[1] instanceof InventoryType) {
+                    InventoryType type = (InventoryType) args[1];
+                    return StandInInventory.create(holder, type, type.getDefaultSize());
+                }
+                return StandInInventory.create(holder, InventoryType.CHEST, (int) args[1]);
+            }
+            default:
+                Object result = Proxies.objectMethod(proxy, method, args);
+                return result != null ? result : Proxies.defaultValue(method.getReturnType());
+        }
+    }
+
+    private Object invokeItemFactory(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getItemMeta":
+                return args[0] == Material.AIR ? null : StandInMeta.create();
+            case "isApplicable":
+                return true;
+            case "equals": {
+                if (args.length != 2) break;
+                ItemMeta first = (ItemMeta) args[0], second = (ItemMeta) args[1];
+                if (StandInMeta.isEmpty(first)) return StandInMeta.isEmpty(second);
+                return first.equals(second);
+            }
+            case "asMetaFor":
+                return args[0];
+            case "updateMaterial":
+                return args[1];
+            case "ensureServerConversions":
+                return args[0];
+            default:
+                break;
+        }
+        Object result = Proxies.objectMethod(proxy, method, args);
+        return result != null ? result : Proxies.defaultValue(method.getReturnType());
+    }
+
+    private Object invokePluginManager(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "registerEvents":
+                if (args[0] instanceof MenuListeners) listeners = (MenuListeners) args[0];
+                return null;
+            case "isPluginEnabled":
+                return true;
+            default:
+                Object result = Proxies.objectMethod(proxy, method, args);
+                return result != null ? result : Proxies.defaultValue(method.getReturnType());
+        }
+    }
+
+    private Object invokePlugin(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getName":
+                return "WoodyBenchmarks";
+            case "getLogger":
+                return logger;
+            case "getServer":
+                return server;
+            case "isEnabled":
+                return true;
+            default:
+                Object result = Proxies.objectMethod(proxy, method, args);
+                return result != null ? result : Proxies.defaultValue(method.getReturnType());
+        }
+    }
+
+    private final class PlayerHandler implements InvocationHandler {
+        private final String name;
+        private final UUID uniqueId = UUID.randomUUID();
+        private Player player;
+        private PlayerInventory inventory;
+        private InventoryView view;
+
+        PlayerHandler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getName":
+                case "getDisplayName":
+                    return name;
+                case "getUniqueId":
+                    return uniqueId;
+                case "getInventory":
+                    return inventory;
+                case "getOpenInventory":
+                    return view == null ? new StandInView(inventory, inventory, player) : view;
+                case "openInventory":
+                    if (args[0] instanceof Inventory) return open((Inventory) args[0]);
+                    return null;
+                case "closeInventory":
+                    close();
+                    return null;
+                case "isOnline":
+                    return true;
+                default:
+                    Object result = Proxies.objectMethod(proxy, method, args);
+                    return result != null ? result : Proxies.defaultValue(method.getReturnType());
+            }
+        }
+
+        private InventoryView open(Inventory top) {
+            close();
+            view = new StandInView(top, inventory, player);
+            viewersOf(top).add(player);
+            if (listeners != null) listeners.onGuiOpen(new InventoryOpenEvent(view));
+            return view;
+        }
+
+        private void close() {
+            if (view == null) return;
+            InventoryView closing = view;
+            view = null;
+            viewersOf(closing.getTopInventory()).remove(player);
+            if (listeners != null) listeners.onGuiClose(new InventoryCloseEvent(closing));
+        }
+
+        private List<HumanEntity> viewersOf(Inventory inventory) {
+            return StandInInventory.handler(inventory).viewers();
+        }
+    }
+}
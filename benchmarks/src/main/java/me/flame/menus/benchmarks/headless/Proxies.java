@@ -0,0 +1,65 @@
+package me.flame.menus.benchmarks.headless;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helpers to implement the huge Bukkit interfaces with only the methods the benchmarks reach.
+ */
+final class Proxies {
+    private Proxies() {
+        throw new UnsupportedOperationException();
+    }
+
+    @NotNull
+    static <T> T create(@NotNull Class<T> type, @NotNull InvocationHandler handler, Class<?>... extra) {
+        Class<?>[] interfaces = new Class<?>[extra.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extra, 0, interfaces, 1, extra.length);
+        return type.cast(Proxy.newProxyInstance(Proxies.class.getClassLoader(), interfaces, handler));
+    }
+
+    /**
+     * Answer the {@link Object} methods of a proxy by identity, or return null if the method isn't one of them.
+     */
+    static Object objectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return method.getParameterCount() == 1 ? proxy == args[0] : null;
+            case "hashCode":
+                return method.getParameterCount() == 0 ? System.identityHashCode(proxy) : null;
+            case "toString":
+                return method.getParameterCount() == 0 ? method.getDeclaringClass().getSimpleName() + "@stand-in" : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * The value a method of a stand-in returns when it has nothing better to return.
+     */
+    static Object defaultValue(@NotNull Class<?> type) {
+        if (!type.isPrimitive()) {
+            if (type == List.class) return Collections.emptyList();
+            if (type == Set.class) return Collections.emptySet();
+            if (type == Map.class) return Collections.emptyMap();
+            return null;
+        }
+        if (type == boolean.class) return false;
+        if (type == void.class) return null;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0F;
+        return 0D;
+    }
+}
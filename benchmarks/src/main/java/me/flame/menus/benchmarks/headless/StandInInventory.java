@@ -0,0 +1,98 @@
+package me.flame.menus.benchmarks.headless;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link Inventory} stand-in backed by an array, counting the slot writes it receives.
+ */
+final class StandInInventory implements InvocationHandler {
+    private final ItemStack[] contents;
+    private final InventoryHolder holder;
+    private final InventoryType type;
+    private final List<HumanEntity> viewers = new ArrayList<>(1);
+
+    private long writes;
+
+    private StandInInventory(InventoryHolder holder, InventoryType type, int size) {
+        this.holder = holder;
+        this.type = type;
+        this.contents = new ItemStack[size];
+    }
+
+    @NotNull
+    static Inventory create(InventoryHolder holder, InventoryType type, int size) {
+        return Proxies.create(Inventory.class, new StandInInventory(holder, type, size));
+    }
+
+    @NotNull
+    static PlayerInventory createPlayerInventory(HumanEntity player) {
+        return Proxies.create(PlayerInventory.class, new StandInInventory(player, InventoryType.PLAYER, 41));
+    }
+
+    @NotNull
+    static StandInInventory handler(@NotNull Inventory inventory) {
+        return (StandInInventory) Proxy.getInvocationHandler(inventory);
+    }
+
+    long getWrites() {
+        return writes;
+    }
+
+    List<HumanEntity> viewers() {
+        return viewers;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getSize":
+                return contents.length;
+            case "getItem":
+                return contents[(int) args[0]];
+            case "setItem":
+                contents[(int) args[0]] = (ItemStack) args[1];
+                writes++;
+                return null;
+            case "getContents":
+            case "getStorageContents":
+                return contents.clone();
+            case "setContents":
+            case "setStorageContents": {
+                ItemStack[] items = (ItemStack[]) args[0];
+                Arrays.fill(contents, null);
+                System.arraycopy(items, 0, contents, 0, Math.min(items.length, contents.length));
+                writes += contents.length;
+                return null;
+            }
+            case "clear":
+                if (method.getParameterCount() == 0) Arrays.fill(contents, null);
+                else contents[(int) args[0]] = null;
+                return null;
+            case "getHolder":
+                return holder;
+            case "getType":
+                return type;
+            case "getViewers":
+                return new ArrayList<>(viewers);
+            case "getMaxStackSize":
+                return 64;
+            default:
+                Object result = Proxies.objectMethod(proxy, method, args);
+                return result != null ? result : Proxies.defaultValue(method.getReturnType());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package me.flame.menus.benchmarks.headless;
+
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.meta.Damageable;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An {@link ItemMeta} stand-in storing its properties in a map, following the bean conventions of the meta interfaces:
+ * {@code setX(value)} stores, {@code getX()}/{@code isX()} loads and {@code hasX()} checks a property.
+ * <p>
+ * The persistent data container is a map as well, values are copied the way a real container copies them through NBT.
+ */
+final class StandInMeta implements InvocationHandler {
+    private final Map<String, Object> properties;
+    private final Map<NamespacedKey, Object> data;
+    private final PersistentDataContainer container;
+
+    private StandInMeta(Map<String, Object> properties, Map<NamespacedKey, Object> data) {
+        this.properties = properties;
+        this.data = data;
+        this.container = Proxies.create(PersistentDataContainer.class, this::invokeContainer);
+    }
+
+    @NotNull
+    static ItemMeta create() {
+        return create(new StandInMeta(new HashMap<>(4), new HashMap<>(2)));
+    }
+
+    private static ItemMeta create(StandInMeta handler) {
+        return Proxies.create(ItemMeta.class, handler, Damageable.class);
+    }
+
+    static boolean isEmpty(ItemMeta meta) {
+        if (meta == null) return true;
+        StandInMeta handler = handler(meta);
+        return handler == null || (handler.properties.isEmpty() && handler.data.isEmpty());
+    }
+
+    static StandInMeta handler(Object meta) {
+        if (!Proxy.isProxyClass(meta.getClass())) return null;
+        InvocationHandler handler = Proxy.getInvocationHandler(meta);
+        return handler instanceof StandInMeta ? (StandInMeta) handler : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        int parameters = method.getParameterCount();
+        switch (name) {
+            case "clone":
+                return create(new StandInMeta(copyProperties(), new HashMap<>(data)));
+            case "getPersistentDataContainer":
+                return container;
+            case "equals": {
+                if (parameters != 1) break;
+                StandInMeta other = args[0] == null ? null : handler(args[0]);
+                return other != null && deepEquals(properties, other.properties) && deepEquals(data, other.data);
+            }
+            case "hashCode":
+                if (parameters == 0) return properties.keySet().hashCode() * 31 + data.keySet().hashCode();
+                break;
+            case "toString":
+                if (parameters == 0) return "StandInMeta" + properties;
+                break;
+            case "serialize":
+                return new HashMap<>(properties);
+            default:
+                break;
+        }
+
+        if (parameters == 1 && name.startsWith("set")) {
+            String property = name.substring(3);
+            Object value = args[0];
+            if (value == null) properties.remove(property);
+            else properties.put(property, value instanceof List ? new ArrayList<>((List<?>) value) : value);
+            return null;
+        }
+        if (parameters == 0) {
+            if (name.startsWith("has")) return properties.containsKey(name.substring(3));
+
+            String property = name.startsWith("get") ? name.substring(3) : name.startsWith("is") ? name.substring(2) : null;
+            if (property != null) {
+                Object value = properties.get(property);
+                if (value instanceof List) return new ArrayList<>((List<?>) value);
+                if (value != null) return value;
+                return method.getReturnType() == List.class ? null : Proxies.defaultValue(method.getReturnType());
+            }
+        }
+        return Proxies.defaultValue(method.getReturnType());
+    }
+
+    private Object invokeContainer(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "set":
+                data.put((NamespacedKey) args[0], copy(args[2]));
+                return null;
+            case "get":
+                return copy(data.get((NamespacedKey) args[0]));
+            case "getOrDefault": {
+                Object value = data.get((NamespacedKey) args[0]);
+                return value == null ? args[2] : copy(value);
+            }
+            case "has":
+                return data.containsKey((NamespacedKey) args[0]);
+            case "remove":
+                data.remove((NamespacedKey) args[0]);
+                return null;
+            case "getKeys":
+                return data.keySet();
+            case "isEmpty":
+                return data.isEmpty();
+            default:
+                Object result = Proxies.objectMethod(proxy, method, args);
+                return result != null ? result : Proxies.defaultValue(method.getReturnType());
+        }
+    }
+
+    private Map<String, Object> copyProperties() {
+        Map<String, Object> copy = new HashMap<>(properties);
+        copy.replaceAll((property, value) -> value instanceof List ? new ArrayList<>((List<?>) value) : value);
+        return copy;
+    }
+
+    private static Object copy(Object value) {
+        if (value instanceof long[]) return ((long[]) value).clone();
+        if (value instanceof int[]) return ((int[]) value).clone();
+        if (value instanceof byte[]) return ((byte[]) value).clone();
+        return value;
+    }
+
+    private static boolean deepEquals(Map<?, Object> first, Map<?, Object> second) {
+        if (first.size() != second.size()) return false;
+        for (Map.Entry<?, Object> entry : first.entrySet()) {
+            if (!Objects.deepEquals(entry.getValue(), second.get(entry.getKey()))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,140 @@
+package me.flame.menus.benchmarks.headless;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A {@link BukkitScheduler} stand-in whose ticks are driven by hand with {@link #tick()}.
+ * <p>
+ * Asynchronous tasks are treated as synchronous ones, a benchmark measures the main thread anyway.
+ */
+final class StandInScheduler implements InvocationHandler {
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Task> due = new ArrayList<>();
+    private long currentTick;
+    private int nextId = 1;
+
+    @NotNull
+    static BukkitScheduler create(StandInScheduler handler) {
+        return Proxies.create(BukkitScheduler.class, handler);
+    }
+
+    /**
+     * Run every task due this tick, then advance to the next one.
+     */
+    void tick() {
+        currentTick++;
+        for (Task task : tasks) if (task.nextRun <= currentTick) due.add(task);
+        for (Task task : due) {
+            if (task.cancelled) continue;
+            task.action.run();
+            if (task.period > 0) task.nextRun = currentTick + task.period;
+            else task.cancelled = true;
+        }
+        due.clear();
+        tasks.removeIf(task -> task.cancelled);
+    }
+
+    int pending() {
+        return tasks.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        switch (name) {
+            case "runTask":
+            case "runTaskAsynchronously":
+            case "scheduleSyncDelayedTask":
+            case "scheduleAsyncDelayedTask":
+            case "runTaskLater":
+            case "runTaskLaterAsynchronously":
+            case "runTaskTimer":
+            case "runTaskTimerAsynchronously":
+            case "scheduleSyncRepeatingTask":
+            case "scheduleAsyncRepeatingTask": {
+                long delay = args.length > 2 ? (long) args[2] : 0L;
+                long period = args.length > 3 ? (long) args[3] : 0L;
+
+                Task task = new Task(nextId++, (Plugin) args[0], delay, period);
+                Object action = args[1];
+                task.action = action instanceof Runnable
+                        ? (Runnable) action
+                        : () -> ((Consumer<BukkitTask>) action).accept(task);
+                tasks.add(task);
+
+                if (method.getReturnType() == int.class) return task.id;
+                return method.getReturnType() == void.class ? null : task;
+            }
+            case "cancelTask": {
+                int id = (int) args[0];
+                for (Task task : tasks) if (task.id == id) task.cancelled = true;
+                return null;
+            }
+            case "cancelTasks":
+                for (Task task : tasks) if (task.owner == args[0]) task.cancelled = true;
+                return null;
+            case "isQueued":
+            case "isCurrentlyRunning": {
+                int id = (int) args[0];
+                for (Task task : tasks) if (task.id == id && !task.cancelled) return true;
+                return false;
+            }
+            default:
+                Object result = Proxies.objectMethod(proxy, method, args);
+                return result != null ? result : Proxies.defaultValue(method.getReturnType());
+        }
+    }
+
+    private final class Task implements BukkitTask {
+        private final int id;
+        private final Plugin owner;
+        private final long period;
+        private long nextRun;
+        private boolean cancelled;
+        private Runnable action;
+
+        Task(int id, Plugin owner, long delay, long period) {
+            this.id = id;
+            this.owner = owner;
+            this.period = period;
+            this.nextRun = currentTick + Math.max(1L, delay);
+        }
+
+        @Override
+        public int getTaskId() {
+            return id;
+        }
+
+        @NotNull
+        @Override
+        public Plugin getOwner() {
+            return owner;
+        }
+
+        @Override
+        public boolean isSync() {
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package me.flame.menus.benchmarks.headless;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The view of a player looking at a stand-in inventory.
+ */
+public final class StandInView extends InventoryView {
+    private final Inventory top, bottom;
+    private final HumanEntity player;
+
+    StandInView(@NotNull Inventory top, @NotNull Inventory bottom, @NotNull HumanEntity player) {
+        this.top = top;
+        this.bottom = bottom;
+        this.player = player;
+    }
+
+    @NotNull
+    @Override
+    public Inventory getTopInventory() {
+        return top;
+    }
+
+    @NotNull
+    @Override
+    public Inventory getBottomInventory() {
+        return bottom;
+    }
+
+    @NotNull
+    @Override
+    public HumanEntity getPlayer() {
+        return player;
+    }
+
+    @NotNull
+    @Override
+    public InventoryType getType() {
+        return top.getType();
+    }
+
+    @NotNull
+    @Override
+    public String getTitle() {
+        return "stand-in";
+    }
+}
@@ -0,0 +1,182 @@
+package me.flame.menus.components.cooldown;
+
+import me.flame.menus.util.LongTable;
+import me.flame.menus.util.PluginProvider;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * The cooldowns of every {@link me.flame.menus.items.MenuItem}, keyed by player and item id.
+ * <p>
+ * Cooldowns live in one {@link LongTable} of primitive longs (player id, item id, deadline),
+ * so adding or checking one allocates nothing and an item with thousands of users costs no memory of its own.
+ * <p>
+ * Every cooldown is also recorded in a hashed timing wheel under the tick it expires at, a single repeating task
+ * visits the bucket of the current tick and drops the cooldowns which expired, so the table only ever holds
+ * live cooldowns. The task only exists while at least one cooldown is running.
+ * @since 2.0.0
+ */
+@SuppressWarnings("unused")
+public final class CooldownService {
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private static final int WHEEL_SIZE = 512, WHEEL_MASK = WHEEL_SIZE - 1;
+
+    // player most significant bits, player least significant bits, item id, tick
+    private static final int RECORD_SIZE = 4;
+
+    private static final CooldownService SERVICE = new CooldownService();
+
+    // (player most significant bits, player least significant bits, item id) -> deadline, deadlines are never 0
+    private final LongTable cooldowns = new LongTable(3);
+
+    private final long[][] wheel = new long[WHEEL_SIZE][];
+    private final int[] wheelCounts = new int[WHEEL_SIZE];
+
+    private long tick = currentTick();
+
+    private BukkitTask task;
+
+    private CooldownService() {}
+
+    /**
+     * Get the service shared by every menu item.
+     * @return the service
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static CooldownService get() {
+        return SERVICE;
+    }
+
+    /**
+     * Put an item on cooldown for a player, replacing the cooldown the player may already have on it.
+     * @param player the player
+     * @param item the id of the item
+     * @param millis how long the cooldown lasts
+     */
+    public synchronized void start(@NotNull UUID player, long item, long millis) {
+        if (millis <= 0L) {
+            clear(player, item);
+            return;
+        }
+        long deadline = System.currentTimeMillis() + millis;
+        long high = player.getMostSignificantBits(), low = player.getLeastSignificantBits();
+
+        int index = cooldowns.indexOf(high, low, item);
+        if (index == -1) cooldowns.insert(high, low, item, deadline);
+        else cooldowns.setValueAt(index, deadline);
+
+        // the tick after the deadline, a cooldown is only dropped once it has surely expired
+        schedule(high, low, item, deadline / MILLIS_PER_TICK + 1);
+    }
+
+    /**
+     * Check if an item is on cooldown for a player.
+     * @param player the player
+     * @param item the id of the item
+     * @return true if the cooldown of the player on the item hasn't expired yet
+     */
+    public synchronized boolean isOnCooldown(@NotNull UUID player, long item) {
+        return getRemaining(player, item) > 0L;
+    }
+
+    /**
+     * Get how long an item stays on cooldown for a player.
+     * @param player the player
+     * @param item the id of the item
+     * @return the remaining milliseconds, 0 if the item isn't on cooldown
+     */
+    public synchronized long getRemaining(@NotNull UUID player, long item) {
+        int index = cooldowns.indexOf(player.getMostSignificantBits(), player.getLeastSignificantBits(), item);
+        return index == -1 ? 0L : Math.max(0L, cooldowns.valueAt(index) - System.currentTimeMillis());
+    }
+
+    /**
+     * End the cooldown of a player on an item early.
+     * @param player the player
+     * @param item the id of the item
+     */
+    public synchronized void clear(@NotNull UUID player, long item) {
+        int index = cooldowns.indexOf(player.getMostSignificantBits(), player.getLeastSignificantBits(), item);
+        if (index != -1) cooldowns.removeAt(index);
+    }
+
+    /**
+     * Get the amount of cooldowns currently stored.
+     * @return the amount of cooldowns which haven't been dropped yet
+     */
+    public synchronized int size() {
+        return cooldowns.size();
+    }
+
+    private void schedule(long high, long low, long item, long expiry) {
+        int bucket = (int) (expiry & WHEEL_MASK);
+        long[] records = wheel[bucket];
+        int count = wheelCounts[bucket], offset = count * RECORD_SIZE;
+        if (records == null) {
+            records = wheel[bucket] = new long[RECORD_SIZE * 4];
+        } else if (offset == records.length) {
+            records = wheel[bucket] = Arrays.copyOf(records, records.length << 1);
+        }
+        records[offset] = high;
+        records[offset + 1] = low;
+        records[offset + 2] = item;
+        records[offset + 3] = expiry;
+        wheelCounts[bucket] = count + 1;
+
+        if (task == null) {
+            tick = currentTick();
+            task = Bukkit.getScheduler().runTaskTimer(PluginProvider.get(), this::tick, 1L, 1L);
+        }
+    }
+
+    private synchronized void tick() {
+        // a lagging server runs less than 20 ticks a second, every tick of the wall clock which passed is visited
+        long millis = System.currentTimeMillis(), now = millis / MILLIS_PER_TICK;
+        for (long limit = Math.min(now, tick + WHEEL_SIZE); tick < limit; ) expire(++tick, now, millis);
+        tick = now;
+
+        if (cooldowns.size() == 0 && task != null) {
+            Arrays.fill(wheelCounts, 0);
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void expire(long visited, long now, long millis) {
+        int bucket = (int) (visited & WHEEL_MASK);
+        long[] records = wheel[bucket];
+        int count = wheelCounts[bucket], kept = 0;
+
+        for (int record = 0; record < count; record++) {
+            int offset = record * RECORD_SIZE;
+            long high = records[offset], low = records[offset + 1], item = records[offset + 2], expiry = records[offset + 3];
+            if (expiry > now) { // expires in a later round of the wheel
+                int keptOffset = kept++ * RECORD_SIZE;
+                records[keptOffset] = high;
+                records[keptOffset + 1] = low;
+                records[keptOffset + 2] = item;
+                records[keptOffset + 3] = expiry;
+                continue;
+            }
+
+            // a restarted cooldown has a record of its own at its new deadline
+            int index = cooldowns.indexOf(high, low, item);
+            if (index != -1 && cooldowns.valueAt(index) <= millis) cooldowns.removeAt(index);
+        }
+        wheelCounts[bucket] = kept;
+        if (kept == 0 && records != null && records.length > RECORD_SIZE * 64) wheel[bucket] = null;
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / MILLIS_PER_TICK;
+    }
+}
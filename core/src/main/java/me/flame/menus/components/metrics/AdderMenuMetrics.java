@@ -0,0 +1,83 @@
+package me.flame.menus.components.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The built-in {@link MenuMetrics}, recording into {@link LongAdder}s and {@link LatencyHistogram}s.
+ * <p>
+ * Recording never allocates or locks, snapshots can be taken from any thread.
+ * @since 2.0.0
+ */
+public final class AdderMenuMetrics implements MenuMetrics {
+    private final LatencyHistogram clicks = new LatencyHistogram(),
+            slotsPerUpdate = new LatencyHistogram(),
+            stateRefreshes = new LatencyHistogram(),
+            pageTurns = new LatencyHistogram();
+
+    private final LongAdder animationTicks = new LongAdder(), animationsAdvanced = new LongAdder();
+
+    // guarded by this, only touched when taking a snapshot
+    private long lastSnapshotNanos = System.nanoTime(), lastAnimationTicks;
+
+    @Override
+    public void recordClick(long nanos) {
+        clicks.record(nanos);
+    }
+
+    @Override
+    public void recordSlotsWritten(int slots) {
+        slotsPerUpdate.record(slots);
+    }
+
+    @Override
+    public void recordAnimationTick(int animations) {
+        animationTicks.increment();
+        animationsAdvanced.add(animations);
+    }
+
+    @Override
+    public void recordStateRefresh(long nanos) {
+        stateRefreshes.record(nanos);
+    }
+
+    @Override
+    public void recordPageTurn(long nanos) {
+        pageTurns.record(nanos);
+    }
+
+    @NotNull
+    @Override
+    public synchronized MetricsSnapshot snapshot() {
+        long now = System.nanoTime(), ticks = animationTicks.sum();
+        long elapsed = now - lastSnapshotNanos;
+        double ticksPerSecond = elapsed <= 0L ? 0.0 : (ticks - lastAnimationTicks) * 1_000_000_000.0 / elapsed;
+        this.lastSnapshotNanos = now;
+        this.lastAnimationTicks = ticks;
+
+        return new MetricsSnapshot(
+                clicks.snapshot(),
+                slotsPerUpdate.snapshot(),
+                ticks,
+                animationsAdvanced.sum(),
+                ticksPerSecond,
+                stateRefreshes.snapshot(),
+                pageTurns.snapshot()
+        );
+    }
+
+    /**
+     * Clear everything recorded so far.
+     */
+    public synchronized void reset() {
+        clicks.reset();
+        slotsPerUpdate.reset();
+        stateRefreshes.reset();
+        pageTurns.reset();
+        animationTicks.reset();
+        animationsAdvanced.reset();
+        this.lastSnapshotNanos = System.nanoTime();
+        this.lastAnimationTicks = 0L;
+    }
+}
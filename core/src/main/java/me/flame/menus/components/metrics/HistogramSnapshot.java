@@ -0,0 +1,33 @@
+package me.flame.menus.components.metrics;
+
+import lombok.Getter;
+
+/**
+ * The distribution recorded by a {@link LatencyHistogram} at one point in time.
+ * <p>
+ * Percentiles are the highest value of the bucket they fall into, so they're never underestimated.
+ * @since 2.0.0
+ */
+@Getter
+public final class HistogramSnapshot {
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(0L, 0.0, 0L, 0L, 0L, 0L);
+
+    private final long count;
+    private final double mean;
+    private final long p50, p90, p99;
+    private final long max;
+
+    HistogramSnapshot(long count, double mean, long p50, long p90, long p99, long max) {
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + String.format("%.1f", mean) + ", p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + ", max=" + max;
+    }
+}
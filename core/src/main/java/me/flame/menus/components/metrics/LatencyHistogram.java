@@ -0,0 +1,79 @@
+package me.flame.menus.components.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A log-linear histogram of non-negative values, in the spirit of HdrHistogram.
+ * <p>
+ * Values are grouped by power of two, and every power of two is split into 8 linear sub-buckets,
+ * so every recorded value is known within 12.5% with a fixed 488 buckets and no allocation while recording.
+ * @since 2.0.0
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3, SUB_BUCKETS = 1 << SUB_BUCKET_BITS, SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public void record(long value) {
+        if (value < 0L) value = 0L;
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) buckets.set(bucket, 0L);
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    @NotNull
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0L;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) total += (counts[bucket] = buckets.get(bucket));
+        if (total == 0L) return HistogramSnapshot.EMPTY;
+
+        long highest = max.get();
+        return new HistogramSnapshot(
+                total,
+                (double) sum.sum() / total,
+                percentile(counts, total, 0.50, highest),
+                percentile(counts, total, 0.90, highest),
+                percentile(counts, total, 0.99, highest),
+                highest
+        );
+    }
+
+    private static long percentile(long[] counts, long total, double quantile, long highest) {
+        long target = Math.max(1L, (long) Math.ceil(total * quantile)), seen = 0L;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= target) return Math.min(highestOf(bucket), highest);
+        }
+        return highest;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & SUB_BUCKET_MASK;
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestOf(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1, shift = exponent - SUB_BUCKET_BITS;
+        long lowest = (long) (SUB_BUCKETS + (bucket & SUB_BUCKET_MASK)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,89 @@
+package me.flame.menus.components.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives measurements of the hot paths of WoodyMenus, installed with {@link MenuMetricsProvider#provide(MenuMetrics)}.
+ * <p>
+ * Every method is called on the main thread in the middle of the measured path, implementations must be cheap and never throw.
+ * When {@link #isEnabled()} is false nothing is measured at all, so the default {@link #NOOP} costs a single check.
+ * @see AdderMenuMetrics
+ * @since 2.0.0
+ */
+public interface MenuMetrics {
+    /**
+     * Metrics which record nothing, the default.
+     */
+    MenuMetrics NOOP = new MenuMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void recordClick(long nanos) {}
+
+        @Override
+        public void recordSlotsWritten(int slots) {}
+
+        @Override
+        public void recordAnimationTick(int animations) {}
+
+        @Override
+        public void recordStateRefresh(long nanos) {}
+
+        @Override
+        public void recordPageTurn(long nanos) {}
+
+        @NotNull
+        @Override
+        public MetricsSnapshot snapshot() {
+            return MetricsSnapshot.EMPTY;
+        }
+    };
+
+    /**
+     * Check if anything should be measured, callers skip timing entirely when this is false.
+     * @return true if the metrics record measurements
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Record how long a click on a menu took to dispatch in the listener.
+     * @param nanos the dispatch time in nanoseconds
+     */
+    void recordClick(long nanos);
+
+    /**
+     * Record how many slots a menu update wrote into its inventory.
+     * @param slots the amount of slots written
+     */
+    void recordSlotsWritten(int slots);
+
+    /**
+     * Record a tick of the animation engine.
+     * @param animations the amount of animations advanced during the tick
+     */
+    void recordAnimationTick(int animations);
+
+    /**
+     * Record how long refreshing the states of an item took.
+     * @param nanos the refresh time in nanoseconds
+     */
+    void recordStateRefresh(long nanos);
+
+    /**
+     * Record how long turning the page of a paginated menu took, including the update of the inventory.
+     * @param nanos the page turn time in nanoseconds
+     */
+    void recordPageTurn(long nanos);
+
+    /**
+     * Capture the current measurements.
+     * @return the measurements recorded so far
+     */
+    @NotNull
+    MetricsSnapshot snapshot();
+}
@@ -0,0 +1,37 @@
+package me.flame.menus.components.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Holds the {@link MenuMetrics} WoodyMenus reports to, {@link MenuMetrics#NOOP} until one is provided.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     AdderMenuMetrics metrics = new AdderMenuMetrics();
+ *     MenuMetricsProvider.provide(metrics);
+ *     ...
+ *     MetricsSnapshot snapshot = metrics.snapshot();
+ *     getLogger().info("p99 click: " + snapshot.getClicks().getP99() + "ns");
+ * }</pre>
+ * @since 2.0.0
+ */
+public final class MenuMetricsProvider {
+    private static volatile MenuMetrics metrics = MenuMetrics.NOOP;
+
+    private MenuMetricsProvider() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Set the metrics WoodyMenus reports to.
+     * @param metrics the metrics, or {@link MenuMetrics#NOOP} to stop measuring
+     */
+    public static void provide(@NotNull MenuMetrics metrics) {
+        MenuMetricsProvider.metrics = metrics;
+    }
+
+    @NotNull
+    public static MenuMetrics get() {
+        return metrics;
+    }
+}
@@ -0,0 +1,55 @@
+package me.flame.menus.components.metrics;
+
+import lombok.Getter;
+
+/**
+ * The measurements of a {@link MenuMetrics} at one point in time.
+ * <p>
+ * Latencies are in nanoseconds, rates are per second over the time since the previous snapshot.
+ * @since 2.0.0
+ */
+@Getter
+public final class MetricsSnapshot {
+    public static final MetricsSnapshot EMPTY = new MetricsSnapshot(
+            HistogramSnapshot.EMPTY, HistogramSnapshot.EMPTY, 0L, 0L, 0.0, HistogramSnapshot.EMPTY, HistogramSnapshot.EMPTY
+    );
+
+    private final HistogramSnapshot clicks;
+
+    private final HistogramSnapshot slotsPerUpdate;
+
+    private final long animationTicks, animationsAdvanced;
+
+    private final double animationTicksPerSecond;
+
+    private final HistogramSnapshot stateRefreshes;
+
+    private final HistogramSnapshot pageTurns;
+
+    MetricsSnapshot(HistogramSnapshot clicks,
+                    HistogramSnapshot slotsPerUpdate,
+                    long animationTicks,
+                    long animationsAdvanced,
+                    double animationTicksPerSecond,
+                    HistogramSnapshot stateRefreshes,
+                    HistogramSnapshot pageTurns) {
+        this.clicks = clicks;
+        this.slotsPerUpdate = slotsPerUpdate;
+        this.animationTicks = animationTicks;
+        this.animationsAdvanced = animationsAdvanced;
+        this.animationTicksPerSecond = animationTicksPerSecond;
+        this.stateRefreshes = stateRefreshes;
+        this.pageTurns = pageTurns;
+    }
+
+    @Override
+    public String toString() {
+        return "clicks[" + clicks + "]"
+                + ", slotsPerUpdate[" + slotsPerUpdate + "]"
+                + ", animationTicks=" + animationTicks
+                + ", animationsAdvanced=" + animationsAdvanced
+                + ", animationTicksPerSecond=" + String.format("%.1f", animationTicksPerSecond)
+                + ", stateRefreshes[" + stateRefreshes + "]"
+                + ", pageTurns[" + pageTurns + "]";
+    }
+}
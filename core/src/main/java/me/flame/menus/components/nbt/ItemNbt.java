@@ -3,6 +3,7 @@ package me.flame.menus.components.nbt;
 import org.bukkit.inventory.ItemStack;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Ideally this wouldn't need to be a util, but because of the {@link LegacyNbt} it makes it easier. Legacy
@@ -67,4 +68,41 @@ public final class ItemNbt {
     public static ItemStack removeTag(@NotNull final ItemStack itemStack, @NotNull final String key) {
         return wrapper.removeTag(itemStack, key);
     }
+
+    /**
+     * Sets a fixed-width id (two longs) to the {@link ItemStack}.
+     *
+     * @param itemStack    The current {@link ItemStack} to be set.
+     * @param key          The NBT key to use.
+     * @param mostSigBits  The most significant bits of the id.
+     * @param leastSigBits The least significant bits of the id.
+     * @return An {@link ItemStack} that has the id set.
+     */
+    public static ItemStack setId(@NotNull final ItemStack itemStack, @NotNull final String key, final long mostSigBits, final long leastSigBits) {
+        return wrapper.setId(itemStack, key, mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Gets the fixed-width id based on a given key.
+     *
+     * @param itemStack The {@link ItemStack} to get from.
+     * @param key       The key to look for.
+     * @return The id as {@code [mostSigBits, leastSigBits]}, or null if there's none.
+     */
+    public static long @Nullable [] getId(@NotNull final ItemStack itemStack, @NotNull final String key) {
+        return wrapper.getId(itemStack, key);
+    }
+
+    /**
+     * Checks if the {@link ItemStack} holds the provided id, without building or parsing any String.
+     *
+     * @param itemStack    The {@link ItemStack} to check.
+     * @param key          The key to look for.
+     * @param mostSigBits  The most significant bits of the id.
+     * @param leastSigBits The least significant bits of the id.
+     * @return true if the stored id equals the provided one.
+     */
+    public static boolean matchesId(@NotNull final ItemStack itemStack, @NotNull final String key, final long mostSigBits, final long leastSigBits) {
+        return wrapper.matchesId(itemStack, key, mostSigBits, leastSigBits);
+    }
 }
@@ -1,35 +1,54 @@
 package me.flame.menus.components.nbt;
 
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
-import com.google.errorprone.annotations.CompileTimeConstant;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Enhanced Legacy NBT wrapper for {@link ItemStack}
+ * <p>
+ * Tags live outside the items in a {@link WeakItemStore}, so they're dropped once their item is garbage collected
+ * and looking them up never hashes item meta.
  * @since 2.0.0
  */
 public class LegacyNbt implements NbtWrapper {
-    @CompileTimeConstant
-    private static final Table<String, ItemStack, String> nbtData = HashBasedTable.create();
+    private static final WeakItemStore nbtData = new WeakItemStore();
 
     public ItemStack setString(@NotNull ItemStack itemStack, String key, String value) {
-        nbtData.put(key, itemStack, value);
+        nbtData.put(itemStack, key, value);
         return itemStack;
     }
 
     public ItemStack removeTag(@NotNull ItemStack itemStack, String key) {
-        nbtData.remove(key, itemStack);
+        nbtData.remove(itemStack, key);
         return itemStack;
     }
 
     public ItemStack setBoolean(@NotNull ItemStack itemStack, String key, boolean value) {
-        nbtData.put(key, itemStack, String.valueOf(value));
+        nbtData.put(itemStack, key, String.valueOf(value));
         return itemStack;
     }
 
     public String getString(@NotNull ItemStack itemStack, String key) {
-        return nbtData.get(key, itemStack);
+        Object value = nbtData.get(itemStack, key);
+        return value instanceof String ? (String) value : null;
     }
-}
\ No newline at end of file
+
+    public ItemStack setId(@NotNull ItemStack itemStack, String key, long mostSigBits, long leastSigBits) {
+        nbtData.put(itemStack, key, new long[] { mostSigBits, leastSigBits });
+        return itemStack;
+    }
+
+    public long @Nullable [] getId(@NotNull ItemStack itemStack, String key) {
+        Object value = nbtData.get(itemStack, key);
+        return value instanceof long[] ? (long[]) value : null;
+    }
+
+    /**
+     * Drop the tags of every item that has been garbage collected, this also happens on every access.
+     * @return the amount of items that still have tags
+     */
+    public static int purge() {
+        return nbtData.purge();
+    }
+}
@@ -29,6 +29,8 @@ import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
+
 public interface NbtWrapper {
 
     /**
@@ -71,4 +73,51 @@ public interface NbtWrapper {
     @Nullable
     String getString(@NotNull final ItemStack itemStack, final String key);
 
+    /**
+     * Sets a fixed-width id (two longs) to the {@link ItemStack}.
+     * <p>
+     * Implementations should store it as two longs, faster than a String as nothing has to be formatted or parsed.
+     * The default stores it as a {@link UUID} string with {@link #setString(ItemStack, String, String)}.
+     *
+     * @param itemStack    The current {@link ItemStack} to be set.
+     * @param key          The NBT key to use.
+     * @param mostSigBits  The most significant bits of the id.
+     * @param leastSigBits The least significant bits of the id.
+     * @return An {@link ItemStack} that has the id set.
+     */
+    default ItemStack setId(@NotNull final ItemStack itemStack, final String key, final long mostSigBits, final long leastSigBits) {
+        return setString(itemStack, key, new UUID(mostSigBits, leastSigBits).toString());
+    }
+
+    /**
+     * Gets the fixed-width id stored with {@link #setId(ItemStack, String, long, long)}.
+     *
+     * @param itemStack The {@link ItemStack} to get from.
+     * @param key       The key to look for.
+     * @return The id as {@code [mostSigBits, leastSigBits]}, or null if there's none.
+     */
+    default long @Nullable [] getId(@NotNull final ItemStack itemStack, final String key) {
+        final String id = getString(itemStack, key);
+        if (id == null) return null;
+        try {
+            final UUID uuid = UUID.fromString(id);
+            return new long[] { uuid.getMostSignificantBits(), uuid.getLeastSignificantBits() };
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the {@link ItemStack} holds the provided id.
+     *
+     * @param itemStack    The {@link ItemStack} to check.
+     * @param key          The key to look for.
+     * @param mostSigBits  The most significant bits of the id.
+     * @param leastSigBits The least significant bits of the id.
+     * @return true if the stored id equals the provided one.
+     */
+    default boolean matchesId(@NotNull final ItemStack itemStack, final String key, final long mostSigBits, final long leastSigBits) {
+        final long[] id = getId(itemStack, key);
+        return id != null && id.length == 2 && id[0] == mostSigBits && id[1] == leastSigBits;
+    }
 }
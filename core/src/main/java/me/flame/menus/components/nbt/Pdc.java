@@ -35,6 +35,9 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Wrapper for compatibility with {@link LegacyNbt}.
  * This ideally wouldn't need exist, but legacy.
@@ -45,6 +48,24 @@ import org.jetbrains.annotations.Nullable;
 public final class Pdc implements NbtWrapper {
     private final Plugin plugin;
 
+    /**
+     * Interned keys, creating a {@link NamespacedKey} validates and lower-cases the key every time.
+     */
+    private final Map<String, NamespacedKey> keys = new ConcurrentHashMap<>(4);
+
+    /**
+     * Gets the interned {@link NamespacedKey} of the provided key.
+     *
+     * @param key The NBT key.
+     * @return The cached {@link NamespacedKey} of the key.
+     */
+    @NotNull
+    public NamespacedKey key(@NotNull final String key) {
+        NamespacedKey namespacedKey = keys.get(key);
+        if (namespacedKey != null) return namespacedKey;
+        return keys.computeIfAbsent(key, k -> new NamespacedKey(plugin, k));
+    }
+
     /**
      * Sets a String NBT tag to the an {@link ItemStack}.
      *
@@ -57,7 +78,7 @@ public final class Pdc implements NbtWrapper {
     public ItemStack setString(@NotNull final ItemStack itemStack, final String key, final String value) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return itemStack;
-        meta.getPersistentDataContainer().set(new NamespacedKey(plugin, key), PersistentDataType.STRING, value);
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.STRING, value);
         itemStack.setItemMeta(meta);
         return itemStack;
     }
@@ -75,7 +96,7 @@ public final class Pdc implements NbtWrapper {
     public ItemStack removeTag(@NotNull final ItemStack itemStack, final String key) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return itemStack;
-        meta.getPersistentDataContainer().remove(new NamespacedKey(plugin, key));
+        meta.getPersistentDataContainer().remove(key(key));
         itemStack.setItemMeta(meta);
         return itemStack;
     }
@@ -95,7 +116,7 @@ public final class Pdc implements NbtWrapper {
     public ItemStack setBoolean(@NotNull final ItemStack itemStack, final String key, final boolean value) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return itemStack;
-        meta.getPersistentDataContainer().set(new NamespacedKey(plugin, key), PersistentDataType.BYTE, value ? (byte) 1 : 0);
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.BYTE, value ? (byte) 1 : 0);
         itemStack.setItemMeta(meta);
         return itemStack;
     }
@@ -112,6 +133,38 @@ public final class Pdc implements NbtWrapper {
     public String getString(@NotNull final ItemStack itemStack, final String key) {
         final ItemMeta meta = itemStack.getItemMeta();
         if (meta == null) return null;
-        return meta.getPersistentDataContainer().get(new NamespacedKey(plugin, key), PersistentDataType.STRING);
+        return meta.getPersistentDataContainer().get(key(key), PersistentDataType.STRING);
+    }
+
+    /**
+     * Sets a fixed-width id to the {@link ItemStack}, stored as a long array of two elements.
+     *
+     * @param itemStack    The current {@link ItemStack} to be set.
+     * @param key          The NBT key to use.
+     * @param mostSigBits  The most significant bits of the id.
+     * @param leastSigBits The least significant bits of the id.
+     * @return An {@link ItemStack} that has the id set.
+     */
+    @Override
+    public ItemStack setId(@NotNull final ItemStack itemStack, final String key, final long mostSigBits, final long leastSigBits) {
+        final ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) return itemStack;
+        meta.getPersistentDataContainer().set(key(key), PersistentDataType.LONG_ARRAY, new long[] { mostSigBits, leastSigBits });
+        itemStack.setItemMeta(meta);
+        return itemStack;
+    }
+
+    /**
+     * Gets the fixed-width id stored in the {@link ItemStack}.
+     *
+     * @param itemStack The {@link ItemStack} to get from.
+     * @param key       The key to look for.
+     * @return The id as {@code [mostSigBits, leastSigBits]}, or null if there's none.
+     */
+    @Override
+    public long @Nullable [] getId(@NotNull final ItemStack itemStack, final String key) {
+        final ItemMeta meta = itemStack.getItemMeta();
+        if (meta == null) return null;
+        return meta.getPersistentDataContainer().get(key(key), PersistentDataType.LONG_ARRAY);
     }
 }
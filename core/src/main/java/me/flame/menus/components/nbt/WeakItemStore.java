@@ -0,0 +1,200 @@
+package me.flame.menus.components.nbt;
+
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The tag storage behind {@link LegacyNbt}, holding item stacks weakly so tags disappear with their stacks.
+ * <p>
+ * Every entry is indexed twice: by identity, which answers lookups with the very stack that was tagged,
+ * and by shape (type, amount and durability), which answers lookups with copies of it such as the stacks of click events.
+ * Neither index hashes item meta, meta is only compared with {@link ItemStack#isSimilar(ItemStack)} on a shape match.
+ * <p>
+ * Entries of collected stacks are expunged on every access, like {@link java.util.WeakHashMap}.
+ * @since 2.0.0
+ */
+final class WeakItemStore {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ReferenceQueue<ItemStack> queue = new ReferenceQueue<>();
+
+    private Entry[] identityTable = new Entry[INITIAL_CAPACITY], shapeTable = new Entry[INITIAL_CAPACITY];
+
+    private int size;
+
+    synchronized void put(@NotNull ItemStack itemStack, @NotNull String key, @NotNull Object value) {
+        expungeStale();
+        Entry entry = find(itemStack);
+        if (entry == null) {
+            entry = new Entry(itemStack, queue);
+            link(entry);
+            if (++size > identityTable.length * 3 / 4) resize(identityTable.length << 1);
+        } else {
+            relinkShape(entry, itemStack);
+        }
+        entry.put(key, value);
+    }
+
+    synchronized void remove(@NotNull ItemStack itemStack, @NotNull String key) {
+        expungeStale();
+        Entry entry = lookup(itemStack);
+        if (entry != null) entry.remove(key);
+    }
+
+    @Nullable
+    synchronized Object get(@NotNull ItemStack itemStack, @NotNull String key) {
+        expungeStale();
+        Entry entry = lookup(itemStack);
+        return entry == null ? null : entry.get(key);
+    }
+
+    /**
+     * Drop the entries of every stack that has been garbage collected.
+     * @return the amount of entries remaining
+     */
+    synchronized int purge() {
+        expungeStale();
+        return size;
+    }
+
+    // the entry of this exact stack, if it was tagged
+    private Entry find(ItemStack itemStack) {
+        for (Entry entry = identityTable[index(System.identityHashCode(itemStack), identityTable)]; entry != null; entry = entry.nextIdentity) {
+            if (entry.get() == itemStack) return entry;
+        }
+        return null;
+    }
+
+    // the entry of this stack, or of a stack it was copied from
+    private Entry lookup(ItemStack itemStack) {
+        Entry entry = find(itemStack);
+        if (entry != null) return entry;
+
+        int shape = shapeOf(itemStack);
+        for (entry = shapeTable[index(shape, shapeTable)]; entry != null; entry = entry.nextShape) {
+            if (entry.shape != shape) continue;
+            ItemStack tagged = entry.get();
+            if (tagged != null && tagged.isSimilar(itemStack)) return entry;
+        }
+        return null;
+    }
+
+    private void link(Entry entry) {
+        int identityIndex = index(entry.identity, identityTable), shapeIndex = index(entry.shape, shapeTable);
+        entry.nextIdentity = identityTable[identityIndex];
+        identityTable[identityIndex] = entry;
+        entry.nextShape = shapeTable[shapeIndex];
+        shapeTable[shapeIndex] = entry;
+    }
+
+    private void relinkShape(Entry entry, ItemStack itemStack) {
+        int shape = shapeOf(itemStack);
+        if (shape == entry.shape) return;
+        unlinkShape(entry);
+        entry.shape = shape;
+        int shapeIndex = index(shape, shapeTable);
+        entry.nextShape = shapeTable[shapeIndex];
+        shapeTable[shapeIndex] = entry;
+    }
+
+    private void unlinkIdentity(Entry entry) {
+        int index = index(entry.identity, identityTable);
+        Entry previous = null;
+        for (Entry current = identityTable[index]; current != null; previous = current, current = current.nextIdentity) {
+            if (current != entry) continue;
+            if (previous == null) identityTable[index] = current.nextIdentity;
+            else previous.nextIdentity = current.nextIdentity;
+            return;
+        }
+    }
+
+    private void unlinkShape(Entry entry) {
+        int index = index(entry.shape, shapeTable);
+        Entry previous = null;
+        for (Entry current = shapeTable[index]; current != null; previous = current, current = current.nextShape) {
+            if (current != entry) continue;
+            if (previous == null) shapeTable[index] = current.nextShape;
+            else previous.nextShape = current.nextShape;
+            return;
+        }
+    }
+
+    private void expungeStale() {
+        for (Object stale; (stale = queue.poll()) != null; ) {
+            Entry entry = (Entry) stale;
+            unlinkIdentity(entry);
+            unlinkShape(entry);
+            size--;
+        }
+    }
+
+    private void resize(int capacity) {
+        Entry[] oldTable = identityTable;
+        this.identityTable = new Entry[capacity];
+        this.shapeTable = new Entry[capacity];
+        for (Entry head : oldTable) {
+            for (Entry entry = head, next; entry != null; entry = next) {
+                next = entry.nextIdentity;
+                link(entry);
+            }
+        }
+    }
+
+    private static int index(int hash, Entry[] table) {
+        return (hash ^ (hash >>> 16)) & (table.length - 1);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static int shapeOf(ItemStack itemStack) {
+        return (itemStack.getType().ordinal() * 31 + itemStack.getAmount()) * 31 + itemStack.getDurability();
+    }
+
+    private static final class Entry extends WeakReference<ItemStack> {
+        final int identity;
+        int shape;
+        Entry nextIdentity, nextShape;
+
+        // tags are few per stack, flat key/value pairs beat a map
+        private Object[] tags = new Object[4];
+        private int tagCount;
+
+        Entry(ItemStack itemStack, ReferenceQueue<ItemStack> queue) {
+            super(itemStack, queue);
+            this.identity = System.identityHashCode(itemStack);
+            this.shape = shapeOf(itemStack);
+        }
+
+        Object get(String key) {
+            for (int index = 0; index < tagCount; index += 2) if (tags[index].equals(key)) return tags[index + 1];
+            return null;
+        }
+
+        void put(String key, Object value) {
+            for (int index = 0; index < tagCount; index += 2) {
+                if (!tags[index].equals(key)) continue;
+                tags[index + 1] = value;
+                return;
+            }
+            if (tagCount == tags.length) tags = Arrays.copyOf(tags, tagCount << 1);
+            tags[tagCount++] = key;
+            tags[tagCount++] = value;
+        }
+
+        void remove(String key) {
+            for (int index = 0; index < tagCount; index += 2) {
+                if (!tags[index].equals(key)) continue;
+                tagCount -= 2;
+                tags[index] = tags[tagCount];
+                tags[index + 1] = tags[tagCount + 1];
+                tags[tagCount] = tags[tagCount + 1] = null;
+                return;
+            }
+        }
+    }
+}
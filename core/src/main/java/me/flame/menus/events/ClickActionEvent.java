@@ -16,16 +16,19 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A better alternative to {@link InventoryClickEvent} offering better flexibility.
+ * <p>
+ * Menus with {@code pooledClickEvents} enabled reuse one instance per thread, see {@link ClickActionEventPool};
+ * don't keep a reference to the event after your action returns, use {@link #snapshot()} instead.
  * @since 1.4.0+
  */
 @SuppressWarnings("unused")
 public class ClickActionEvent extends InventoryInteractEvent {
     private static final HandlerList handlers = new HandlerList();
-    private final ClickType click;
-    private final InventoryAction action;
-    private final InventoryView view;
-    private final InventoryType.SlotType slot_type;
-    private final int whichSlot, rawSlot;
+    private ClickType click;
+    private InventoryAction action;
+    private InventoryView view;
+    private InventoryType.SlotType slot_type;
+    private int whichSlot, rawSlot;
     private ItemStack current;
     private MenuItem currentItem;
 
@@ -40,6 +43,39 @@ public class ClickActionEvent extends InventoryInteractEvent {
         this.current = current;
     }
 
+    /**
+     * Copy this event, for handing it to code that runs after the current action returned, such as async item clicks.
+     * @return a new event with the same state as this one
+     */
+    @NotNull
+    public ClickActionEvent snapshot() {
+        ClickActionEvent copy = new ClickActionEvent(view, slot_type, rawSlot, whichSlot, click, current, action);
+        copy.currentItem = currentItem;
+        copy.setResult(getResult());
+        return copy;
+    }
+
+    void reset(@NotNull InventoryView view, @NotNull InventoryType.SlotType type, int rawSlot, int slot, @NotNull ClickType click, ItemStack current, @NotNull InventoryAction action) {
+        this.transaction = view;
+        this.view = view;
+        this.slot_type = type;
+        this.rawSlot = rawSlot;
+        this.whichSlot = slot;
+        this.click = click;
+        this.action = action;
+        this.current = current;
+        this.currentItem = null;
+        setResult(Result.DEFAULT);
+    }
+
+    void clear() {
+        // drop the references to the player and items while the event sits in the pool
+        this.transaction = null;
+        this.view = null;
+        this.current = null;
+        this.currentItem = null;
+    }
+
     public Player getPlayer() {
         return (Player) view.getPlayer();
     }
@@ -0,0 +1,43 @@
+package me.flame.menus.events;
+
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Recycles {@link ClickActionEvent}s, one spare instance per thread.
+ * <p>
+ * An event is {@linkplain #acquire acquired} before the synchronous click actions run and {@linkplain #release released}
+ * once they're done; clicks handled while the spare is taken, such as nested clicks, simply allocate.
+ * @since 2.0.0
+ */
+public final class ClickActionEventPool {
+    private static final ThreadLocal<ClickActionEvent> SPARE = new ThreadLocal<>();
+
+    private ClickActionEventPool() {
+        throw new UnsupportedOperationException();
+    }
+
+    @NotNull
+    public static ClickActionEvent acquire(@NotNull InventoryView view, @NotNull InventoryType.SlotType type, int rawSlot, int slot, @NotNull ClickType click, ItemStack current, @NotNull InventoryAction action) {
+        ClickActionEvent event = SPARE.get();
+        if (event == null) return new ClickActionEvent(view, type, rawSlot, slot, click, current, action);
+
+        SPARE.set(null);
+        event.reset(view, type, rawSlot, slot, click, current, action);
+        return event;
+    }
+
+    /**
+     * Give an event back to the pool of the current thread, nothing may use it afterwards.
+     * @param event the event to recycle
+     */
+    public static void release(@NotNull ClickActionEvent event) {
+        event.clear();
+        SPARE.set(event);
+    }
+}
@@ -266,7 +266,7 @@ public class ItemEditor {
     @SuppressWarnings("UnusedReturnValue")
     public MenuItem done() {
         this.item.setItemMeta(meta);
-        menuItem.itemStack = this.item;
+        menuItem.setEditedStack(this.item);
         menuItem.clickAction = clickAction;
         return menuItem;
     }
@@ -3,8 +3,14 @@ package me.flame.menus.items;
 import lombok.Getter;
 import lombok.Setter;
 
+import me.flame.menus.adventure.Lore;
+import me.flame.menus.adventure.TextHolder;
+import me.flame.menus.components.cooldown.CooldownService;
+import me.flame.menus.components.metrics.MenuMetrics;
+import me.flame.menus.components.metrics.MenuMetricsProvider;
 import me.flame.menus.components.nbt.ItemNbt;
 import me.flame.menus.events.ClickActionEvent;
+import me.flame.menus.items.states.LoreTemplate;
 import me.flame.menus.items.states.State;
 import me.flame.menus.menu.ActionResponse;
 import me.flame.menus.util.ItemResponse;
@@ -18,13 +24,17 @@ import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import org.bukkit.inventory.meta.ItemMeta;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A Gui itemStack which was particularly made to have an action.
@@ -61,24 +71,43 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
     @NotNull
     ItemStack itemStack;
 
-    @NotNull
-    private final UUID uuid;
+    // ids are a process-wide counter under a salt picked once per boot, so ids never repeat across restarts
+    private static final long SALT = new SecureRandom().nextLong();
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+
+    private final long id;
+
+    // hash of the stack's material, amount and meta, refreshed every time the stack is set or edited
+    private int fingerprint;
+
+    // bumped whenever the fingerprint of any item changes, so menus only look for changed fingerprints after one did
+    private static final AtomicInteger FINGERPRINT_CHANGES = new AtomicInteger();
 
     private List<State> states;
-    private Map<UUID, Long> usageCooldown;
+
+    // the lore from before the first state was added, compiled against the keys of every state and rendered as a whole
+    private Lore stateLore;
+    private LoreTemplate stateTemplate;
+    private String[] stateValues;
+
+    // cooldowns live in the CooldownService, this only spares the lookup for items which never had one
+    private volatile boolean cooldowns;
 
     private MenuItem(ItemStack itemStack, @Nullable ItemResponse action) {
         Objects.requireNonNull(itemStack);
-        this.uuid =  UUID.randomUUID();
-        this.itemStack = ItemNbt.setString(itemStack, "woody-menu", uuid.toString());
+        this.id = NEXT_ID.incrementAndGet();
+        this.itemStack = ItemNbt.setId(itemStack, "woody-menu", SALT, id);
+        this.fingerprint = fingerprint(this.itemStack);
 
         this.clickAction = CompletableFuture.completedFuture(action == null ? (slot, event) -> ActionResponse.EMPTY : action);
     }
 
-    private MenuItem(ItemStack itemStack, @Nullable ItemResponse action, @NotNull UUID uuid) {
+    private MenuItem(ItemStack itemStack, @Nullable ItemResponse action, @Nullable UUID uuid) {
         Objects.requireNonNull(itemStack);
-        this.uuid =  UUID.randomUUID();
-        this.itemStack = ItemNbt.setString(itemStack, "woody-menu", uuid.toString());
+        // an id minted during this boot is kept, ids of a previous boot could collide with the counter
+        this.id = uuid != null && uuid.getMostSignificantBits() == SALT ? uuid.getLeastSignificantBits() : NEXT_ID.incrementAndGet();
+        this.itemStack = ItemNbt.setId(itemStack, "woody-menu", SALT, id);
+        this.fingerprint = fingerprint(this.itemStack);
 
         this.clickAction = CompletableFuture.completedFuture(action == null ? (slot, event) -> ActionResponse.DONE : action);
     }
@@ -115,16 +144,104 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
         return new SkullItemEditor(this);
     }
 
+    /**
+     * Get the stack of this item.
+     * <p>
+     * A stack changed in place must be set again with {@link #setItemStack(ItemStack)}, or refreshed with
+     * {@link #refreshFingerprint()}, for menus to find it by its new contents.
+     * @return the stack
+     */
     public @NotNull ItemStack getItemStack() {
         return itemStack;
     }
 
+    /**
+     * Get the id of this item, unique within this boot of the server.
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Get the id of this item as a UUID, the boot salt being the most significant bits and the id the least.
+     * <p>
+     * Prefer {@link #getId()}, this allocates a new UUID on every call.
+     * @return the id as a UUID
+     */
+    @NotNull
     public UUID getUniqueId() {
-        return uuid;
+        return new UUID(SALT, id);
+    }
+
+    /**
+     * Check if the given item stack carries the id of this item, without reading it into a String or UUID.
+     * @param itemStack the item stack to check
+     * @return true if the item stack belongs to this item
+     */
+    public boolean matches(@NotNull ItemStack itemStack) {
+        return ItemNbt.matchesId(itemStack, "woody-menu", SALT, id);
     }
 
     public void setItemStack(ItemStack itemStack) {
-        this.itemStack = ItemNbt.setString(itemStack, "woody-menu", uuid.toString());
+        this.itemStack = ItemNbt.setId(itemStack, "woody-menu", SALT, id);
+        refreshFingerprint();
+    }
+
+    /**
+     * Get the fingerprint of the stack of this item, cached since the stack was last set, edited or {@linkplain #refreshFingerprint() refreshed}.
+     * <p>
+     * States refresh it when they render, a stack changed in place through {@link #getItemStack()} isn't seen
+     * until it's set again or refreshed.
+     * @return the cached fingerprint
+     * @see #fingerprint(ItemStack)
+     */
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Recompute the fingerprint from the current state of the stack, which may have been changed in place.
+     * @return the fingerprint
+     */
+    public int refreshFingerprint() {
+        int fingerprint = fingerprint(itemStack);
+        if (fingerprint != this.fingerprint) {
+            this.fingerprint = fingerprint;
+            FINGERPRINT_CHANGES.incrementAndGet();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Get how many times the fingerprint of any item changed, for menus to tell if their index of fingerprints may be stale.
+     * @return the amount of changes, wrapping around
+     */
+    @ApiStatus.Internal
+    public static int fingerprintChanges() {
+        return FINGERPRINT_CHANGES.get();
+    }
+
+    void setEditedStack(@NotNull ItemStack itemStack) {
+        this.itemStack = itemStack;
+        refreshFingerprint();
+    }
+
+    /**
+     * Hash an item stack from its material, amount and meta.
+     * <p>
+     * Equal item stacks always have the same fingerprint, so comparing fingerprints rules out most unequal stacks
+     * without the deep {@link ItemMeta} comparison of {@link ItemStack#equals(Object)}.
+     * Reads the meta, so it's as costly as one {@link ItemStack#getItemMeta()}.
+     * @param itemStack the item stack
+     * @return the fingerprint, 0 for null
+     */
+    public static int fingerprint(@Nullable ItemStack itemStack) {
+        if (itemStack == null) return 0;
+        int hash = 31 + itemStack.getType().ordinal();
+        hash = hash * 31 + itemStack.getAmount();
+        ItemMeta meta = itemStack.hasItemMeta() ? itemStack.getItemMeta() : null;
+        return hash * 31 + (meta == null ? 0 : meta.hashCode());
     }
 
     public @NotNull Material getType() {
@@ -135,7 +252,7 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
     public boolean equals(Object item) {
         if (item == this) return true;
         if (!(item instanceof MenuItem)) return false;
-        return uuid.equals(((MenuItem) item).uuid);
+        return id == ((MenuItem) item).id;
     }
 
     @Override
@@ -157,7 +274,7 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
     public @NotNull Map<String, Object> serialize() {
         final Map<String, Object> result = new LinkedHashMap<>(4);
         result.put("type", getType().name());
-        result.put("uuid", uuid);
+        result.put("uuid", getUniqueId());
 
         final ItemMeta meta = itemStack.getItemMeta();
         final int amount = itemStack.getAmount();
@@ -182,12 +299,12 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
 
     @Override
     public int hashCode() {
-        return uuid.hashCode(); // they provide a fast hashcode
+        return Long.hashCode(id);
     }
 
     @Override
     public int compareTo(@NotNull MenuItem menuItem) {
-        return uuid.compareTo(menuItem.uuid);
+        return Long.compare(id, menuItem.id);
     }
 
     private List<State> getStates() {
@@ -196,12 +313,6 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
         return states;
     }
 
-    private Map<UUID, Long> getUsageCooldown() {
-        if (usageCooldown == null)
-            usageCooldown = new HashMap<>(10);
-        return usageCooldown;
-    }
-
     @Nullable
     @Override
     public String getCustomName() {
@@ -232,37 +343,88 @@ public final class MenuItem implements Nameable, Cloneable, Serializable, Compar
         return ChatColor.translateAlternateColorCodes('&', s);
     }
 
+    /**
+     * Render the values of every state into the lore, leaving the item untouched if none of them changed.
+     */
     public void updateStates() {
-        getStates().forEach(State::update);
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        if (!metrics.isEnabled()) {
+            renderStates();
+            return;
+        }
+        long start = System.nanoTime();
+        renderStates();
+        metrics.recordStateRefresh(System.nanoTime() - start);
+    }
+
+    private void renderStates() {
+        if (states == null || states.isEmpty()) return;
+
+        int size = states.size();
+        if (stateTemplate == null) {
+            TextHolder[] keys = new TextHolder[size];
+            for (int index = 0; index < size; index++) keys[index] = states.get(index).getKey();
+            stateTemplate = LoreTemplate.compile(stateLore, keys);
+            stateValues = null;
+        }
+        if (!stateTemplate.hasPlaceholders()) return;
+
+        String[] values = new String[size];
+        for (int index = 0; index < size; index++) values[index] = states.get(index).getValue();
+        if (Arrays.equals(values, stateValues)) return;
+        stateValues = values;
+
+        stateTemplate.render(values).setItemLore(itemStack);
+        refreshFingerprint();
     }
 
     public boolean hasStates() {
         return states != null && !states.isEmpty();
     }
 
+    /**
+     * Check if a cooldown was ever added to this item.
+     * @return true if {@link #addCooldown(Player, long)} was called on this item
+     */
     public boolean hasCooldowns() {
-        return usageCooldown != null && !usageCooldown.isEmpty();
+        return cooldowns;
     }
 
     public void addState(State state) {
+        if (stateLore == null) stateLore = new Lore(itemStack.getItemMeta());
         getStates().add(state);
+        stateTemplate = null;
     }
 
     public void removeState(State state) {
         getStates().remove(state);
+        stateTemplate = null;
     }
 
     public void removeState(int state) {
         getStates().remove(state);
+        stateTemplate = null;
     }
 
     public boolean isOnCooldown(Player player) {
-        if (!hasCooldowns()) return false;
-        Long cooldown = getUsageCooldown().get(player.getUniqueId());
-        return cooldown != null && cooldown < System.currentTimeMillis();
+        return cooldowns && CooldownService.get().isOnCooldown(player.getUniqueId(), id);
+    }
+
+    /**
+     * Get how long this item stays on cooldown for a player.
+     * @param player the player
+     * @return the remaining milliseconds, 0 if the item isn't on cooldown
+     */
+    public long getRemainingCooldown(@NotNull Player player) {
+        return cooldowns ? CooldownService.get().getRemaining(player.getUniqueId(), id) : 0L;
     }
 
     public void addCooldown(@NotNull Player player, long millis) {
-        getUsageCooldown().put(player.getUniqueId(), System.currentTimeMillis() + millis);
+        this.cooldowns = true;
+        CooldownService.get().start(player.getUniqueId(), id, millis);
+    }
+
+    public void removeCooldown(@NotNull Player player) {
+        if (cooldowns) CooldownService.get().clear(player.getUniqueId(), id);
     }
 }
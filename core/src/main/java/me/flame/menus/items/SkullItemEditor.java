@@ -35,7 +35,7 @@ public class SkullItemEditor extends ItemEditor {
     @Override
     public MenuItem done() {
         this.item.setItemMeta(skullMeta);
-        menuItem.itemStack = this.item;
+        menuItem.setEditedStack(this.item);
         menuItem.clickAction = clickAction;
         return menuItem;
     }
@@ -0,0 +1,141 @@
+package me.flame.menus.items.states;
+
+import me.flame.menus.adventure.Lore;
+import me.flame.menus.adventure.StringHolder;
+import me.flame.menus.adventure.TextHolder;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A lore compiled against the placeholder keys of every {@link State} of an item, used to refresh lore without scanning it.
+ * <p>
+ * Compiling records which lines contain a key and splits those lines into the static segments around the keys,
+ * rendering only joins the segments with the current values. Lines without a key are kept as they are,
+ * components included, only the lines holding a key are rendered as legacy text.
+ * @author FlameyosFlow
+ * @since 2.0.0
+ */
+public final class LoreTemplate {
+    private final TextHolder[] lines;
+    private final int[] lineIndexes;
+    private final String[][] segments;
+
+    // the key between every two segments of a line, as an index into the keys the template was compiled against
+    private final int[][] keys;
+
+    private LoreTemplate(TextHolder[] lines, int[] lineIndexes, String[][] segments, int[][] keys) {
+        this.lines = lines;
+        this.lineIndexes = lineIndexes;
+        this.segments = segments;
+        this.keys = keys;
+    }
+
+    /**
+     * Compile the given lore against the placeholder keys.
+     * @param lore the lore to compile
+     * @param keys the placeholder keys
+     * @return the compiled template
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static LoreTemplate compile(@NotNull Lore lore, @NotNull TextHolder @NotNull ... keys) {
+        int size = lore.size();
+        TextHolder[] lines = new TextHolder[size];
+        for (int lineIndex = 0; lineIndex < size; lineIndex++) lines[lineIndex] = lore.get(lineIndex);
+
+        String[] legacyKeys = new String[keys.length];
+        for (int index = 0; index < keys.length; index++) legacyKeys[index] = keys[index].toString();
+        return compile(lines, legacyKeys);
+    }
+
+    /**
+     * Compile the given legacy lines against the placeholder keys.
+     * @param lines the legacy lore lines to compile
+     * @param keys the placeholder keys
+     * @return the compiled template
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static LoreTemplate compile(@NotNull String @NotNull [] lines, @NotNull String @NotNull ... keys) {
+        TextHolder[] holders = new TextHolder[lines.length];
+        for (int lineIndex = 0; lineIndex < lines.length; lineIndex++) holders[lineIndex] = StringHolder.of(lines[lineIndex]);
+        return compile(holders, keys);
+    }
+
+    private static LoreTemplate compile(TextHolder[] lines, String[] keys) {
+        int[] lineIndexes = new int[lines.length];
+        String[][] segments = new String[lines.length][];
+        int[][] lineKeys = new int[lines.length][];
+        int count = 0;
+        for (int lineIndex = 0; lineIndex < lines.length; lineIndex++) {
+            String line = lines[lineIndex].toString();
+            String[] lineSegments = new String[1];
+            int[] keysOfLine = new int[0];
+
+            int start = 0;
+            for (;;) {
+                // the earliest key from the current position, the longest one if several start there
+                int found = -1, foundAt = line.length();
+                for (int key = 0; key < keys.length; key++) {
+                    if (keys[key].isEmpty()) continue;
+                    int at = line.indexOf(keys[key], start);
+                    if (at == -1 || at > foundAt) continue;
+                    if (at < foundAt || keys[key].length() > keys[found].length()) {
+                        found = key;
+                        foundAt = at;
+                    }
+                }
+                if (found == -1) break;
+
+                int gap = keysOfLine.length;
+                lineSegments[gap] = line.substring(start, foundAt);
+                lineSegments = Arrays.copyOf(lineSegments, gap + 2);
+                keysOfLine = Arrays.copyOf(keysOfLine, gap + 1);
+                keysOfLine[gap] = found;
+                start = foundAt + keys[found].length();
+            }
+            if (keysOfLine.length == 0) continue;
+
+            lineSegments[keysOfLine.length] = line.substring(start);
+            lineIndexes[count] = lineIndex;
+            lineKeys[count] = keysOfLine;
+            segments[count++] = lineSegments;
+        }
+        return new LoreTemplate(
+                lines.clone(),
+                Arrays.copyOf(lineIndexes, count), Arrays.copyOf(segments, count), Arrays.copyOf(lineKeys, count)
+        );
+    }
+
+    /**
+     * Check if the compiled lore contains any of the keys anywhere.
+     * @return true if rendering would produce anything other than the original lore
+     */
+    public boolean hasPlaceholders() {
+        return lineIndexes.length != 0;
+    }
+
+    /**
+     * Render the lore, splicing the value of every key into every position it was found at.
+     * @param values the values to replace the keys with, in the order of the keys the template was compiled against
+     * @return the rendered lore
+     */
+    @NotNull
+    public Lore render(@NotNull String @NotNull ... values) {
+        TextHolder[] rendered = lines.clone();
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < lineIndexes.length; index++) {
+            String[] lineSegments = segments[index];
+            int[] lineKeys = keys[index];
+
+            builder.setLength(0);
+            builder.append(lineSegments[0]);
+            for (int gap = 0; gap < lineKeys.length; gap++) builder.append(values[lineKeys[gap]]).append(lineSegments[gap + 1]);
+            rendered[lineIndexes[index]] = StringHolder.of(builder.toString());
+        }
+        return new Lore(rendered);
+    }
+}
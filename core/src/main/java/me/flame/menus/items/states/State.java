@@ -2,13 +2,11 @@ package me.flame.menus.items.states;
 
 import com.google.common.base.Preconditions;
 
-import me.flame.menus.adventure.Lore;
 import me.flame.menus.adventure.TextHolder;
 import me.flame.menus.items.MenuItem;
 
 import org.bukkit.inventory.ItemStack;
 
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -35,7 +33,6 @@ public class State {
     private final TextHolder key;
     private final MenuItem item;
     private final Supplier<TextHolder> value;
-    private final Lore originalLore;
 
     private State(TextHolder key, Supplier<TextHolder> value, @NotNull MenuItem item) {
         this.item = item;
@@ -50,7 +47,6 @@ public class State {
 
         this.key = key;
         this.value = value;
-        this.originalLore = new Lore(stack.getItemMeta());
     }
 
     @Contract(value = "_, _, _ -> new", pure = true)
@@ -98,21 +94,26 @@ public class State {
         return new State(key, () -> value, item);
     }
 
-    @Contract(pure = true)
+    /**
+     * Refresh the lore of the item.
+     * <p>
+     * Every state of the item is rendered together against the lore the item had when its first state was added,
+     * so this is the same as {@link MenuItem#updateStates()}.
+     */
     public void update() {
-        ItemStack otherItem = item.getItemStack();
-        Lore lore = new Lore(originalLore);
+        item.updateStates();
+    }
 
-        int size = lore.size();
-        for (int stringIndex = 0; stringIndex < size; stringIndex++) {
-            replaceWithKey(stringIndex, lore, key, value);
-        }
-        lore.toItemLore(otherItem, true);
+    /**
+     * Evaluate the value of this state.
+     * @return the current value as legacy text
+     */
+    @NotNull
+    public String getValue() {
+        return value.get().toString();
     }
 
-    private static void replaceWithKey(int stringIndex, @NotNull Lore list, TextHolder key, Supplier<TextHolder> value) {
-        TextHolder currentString = list.get(stringIndex);
-        if (!currentString.contains(key)) return;
-        list.set(stringIndex, value.get());
+    public TextHolder getKey() {
+        return key;
     }
 }
@@ -221,6 +221,15 @@ public interface IMenu extends Iterable<MenuItem>, InventoryHolder {
      */
     void update();
 
+    /**
+     * Update the inventory by only pushing the slots which changed since the last update.
+     * <p>
+     * Viewers receive the changed slots through the regular inventory synchronization,
+     * so no full inventory resend is done.
+     * @apiNote changes made directly to an {@link ItemStack} (not through the menu) aren't tracked, use {@link #update()} for those.
+     */
+    void updateChanges();
+
     /**
      * Updates the menu every X ticks (repeatTime)
      *
@@ -466,6 +475,12 @@ public interface IMenu extends Iterable<MenuItem>, InventoryHolder {
      */
     boolean allModifiersAdded();
 
+    /**
+     * Get the modifiers of the menu as a mask, as used by {@link me.flame.menus.modifiers.ClickPermissions}.
+     * @return the mask with the bit of every modifier of the menu set
+     */
+    int getModifierMask();
+
     /**
      * Get the title of the menu as a legacy String.
      * @return the title
@@ -1,13 +1,14 @@
 package me.flame.menus.menu;
 
-import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+
 import me.flame.menus.items.MenuItem;
 
-import org.bukkit.Bukkit;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -20,6 +21,9 @@ import java.util.function.Predicate;
  * Improves the DRY principle by allowing you to add items the same way in {@link Menu} and {@link PaginatedMenu} and others.
  * <p>
  * Contains MenuItem[] and the base menu
+ * <p>
+ * Slots this data leaves empty show the menu's overlay (e.g. the shared controls of a {@link PaginatedMenu}) if it has one,
+ * the iteration and removal methods only ever see the items of this data.
  * @since 2.0.0
  */
 @SuppressWarnings("UnusedReturnValue")
@@ -31,103 +35,180 @@ public class ItemData {
     private MenuItem[] items;
     final Menu menu;
 
+    /**
+     * Bitset of the slots that changed since they were last pushed to an inventory.
+     * <p>
+     * Bit {@code n} represents slot {@code n}, a long is enough for the 54 slots of the biggest menu.
+     */
+    private long dirty;
+
+    /**
+     * Bitset of the slots holding an item of this data, bit {@code n} being slot {@code n}.
+     * <p>
+     * Lets inserts find the next free slot with {@link Long#numberOfTrailingZeros(long)} instead of scanning the items.
+     */
+    private long occupied;
+
+    // the slots of every item of this data by item id, so lookups and removals by item skip the scan
+    private final LongMaskMap slotsById = new LongMaskMap();
+
+    // the slots of every stack fingerprint, and the fingerprint each slot was indexed under
+    private final LongMaskMap slotsByFingerprint = new LongMaskMap();
+    private int[] fingerprints;
+
+    // MenuItem#fingerprintChanges() when the fingerprints of the slots were last compared with their items
+    private int fingerprintChanges = MenuItem.fingerprintChanges();
+
+    // set once any slot is changed after construction, a paginated menu keeps edited pages instead of rebuilding them
+    boolean edited;
+
     public ItemData(@NotNull final Menu menu) {
         this.menu = menu;
         this.items = new MenuItem[menu.size];
+        this.fingerprints = new int[items.length];
+        this.dirty = allSlots(items.length);
+    }
+
+    ItemData(@NotNull final Menu menu, @NotNull final MenuItem @NotNull [] items) {
+        this.menu = menu;
+        this.items = items.length == menu.size ? items : Arrays.copyOf(items, menu.size);
+        this.dirty = allSlots(this.items.length);
+        reindex();
     }
 
     public ItemData(@NotNull final ItemData menu) {
         this.menu = menu.menu;
-        this.items = menu.items;
+        this.items = menu.items.clone();
+        this.dirty = menu.dirty;
+        reindex();
     }
 
     public boolean addItem(@NotNull final ItemStack... items) {
-        final List<MenuItem> notAddedItems = new ArrayList<>(items.length);
-
-        int slot = 0;
-        boolean changed = false;
-        for (final ItemStack item : items) {
-            MenuItem menuItem = MenuItem.of(item);
-            try {
-                if (this.add(slot, menuItem, notAddedItems)) return changed;
-            } catch (IndexOutOfBoundsException ignored) {
-                if (size(slot, menu.size, menu.rows, menuItem, notAddedItems)) return false;
-            }
-            changed = true;
-            slot++;
-        }
-
-        checkSizing(notAddedItems);
-        return changed;
+        MenuItem[] menuItems = new MenuItem[items.length];
+        for (int index = 0; index < items.length; index++) menuItems[index] = MenuItem.of(items[index]);
+        return addItem(menuItems);
     }
 
-    private boolean add(int slot,
-                        @NotNull final MenuItem guiItem,
-                        @NotNull final List<MenuItem> notAddedItems) {
-        while (items[slot] != null) slot++;
-        if (size(slot, menu.size, menu.rows, guiItem, notAddedItems)) return true;
-
-        items[slot] = guiItem;
-        return false;
+    public boolean addItem(@NotNull final MenuItem @NotNull ... items) {
+        int added = insert(items, 0);
+        if (added == items.length) return added != 0;
+
+        // the menu is full, grow it one row at a time while it may
+        int total = added;
+        while (total < items.length && menu.dynamicSizing && menu.rows < 6 && menu.type == MenuType.CHEST) {
+            menu.recreateInventory();
+            total += insert(items, total);
+        }
+        if (total != added) menu.update();
+        return total != 0;
     }
 
-    private static boolean size(int slot, int size, int rows, MenuItem guiItem, List<MenuItem> notAddedItems) {
-        if (slot < size) return false;
-        if (rows == 6) return true;
-        notAddedItems.add(guiItem);
-        return false;
+    public boolean addItem(@NotNull final List<MenuItem> items) {
+        return addItem(items.toArray(new MenuItem[0]));
     }
 
-    public boolean addItem(@NotNull final MenuItem @NotNull ... items) {
-        final List<MenuItem> notAddedItems = new ArrayList<>(items.length);
-
-        int slot = 0;
-        boolean changed = false;
-        for (final MenuItem menuItem : items) {
-            if (this.add(slot, menuItem, notAddedItems)) return changed;
-            changed = true;
-            slot++;
+    /**
+     * Adds the items to the free slots of this data in a single pass, skipping the slots of the menu's overlay.
+     * <p>
+     * Unlike {@link #addItem(MenuItem...)} the menu is never resized, the items which don't fit are returned instead.
+     * @param items the items to add
+     * @return the items which didn't fit, in order, or an empty array if every item was added
+     */
+    public MenuItem @NotNull [] insert(@NotNull final MenuItem @NotNull ... items) {
+        int added = insert(items, 0);
+        return added == items.length ? new MenuItem[0] : Arrays.copyOfRange(items, added, items.length);
+    }
+
+    /**
+     * Adds items to the free slots of this data in a single pass, starting at the given index of the array.
+     * @param items the items
+     * @param from the index of the first item to add
+     * @return the amount of items consumed from {@code from} onwards, null items being skipped without taking a slot
+     */
+    int insert(@NotNull final MenuItem @NotNull [] items, int from) {
+        long free = ~(occupied | overlaySlots()) & allSlots(this.items.length);
+        int index = from;
+        while (index < items.length && free != 0L) {
+            MenuItem item = items[index++];
+            if (item == null) continue;
+
+            int slot = Long.numberOfTrailingZeros(free);
+            free &= free - 1;
+            this.items[slot] = item;
+            occupied |= 1L << slot;
+            dirty |= 1L << slot;
+            index(slot, item);
+            edited = true;
         }
+        return index - from;
+    }
 
-        checkSizing(notAddedItems);
-        return changed;
+    /**
+     * Get the slots holding an item of this data as a bitset, bit {@code n} being slot {@code n}.
+     * @return the occupied slots, not counting the menu's overlay
+     */
+    public long getOccupiedSlots() {
+        return occupied;
     }
 
-    public boolean addItem(@NotNull final List<MenuItem> items) {
-        return addItem(items.toArray(new MenuItem[0]));
+    /**
+     * Get the amount of slots an insert could still fill.
+     * @return the amount of slots neither holding an item of this data nor covered by the menu's overlay
+     */
+    public int getFreeSlotCount() {
+        return Long.bitCount(~(occupied | overlaySlots()) & allSlots(items.length));
+    }
+
+    private long overlaySlots() {
+        final MenuItem[] overlay = menu.overlay();
+        return overlay == null ? 0L : occupiedSlots(overlay);
     }
 
-    private void checkSizing(List<MenuItem> notAddedItems) {
-        if (menu.dynamicSizing && notAddedItems.isEmpty() && (menu.rows < 6 && menu.type == MenuType.CHEST)) {
-            this.recreateInventory();
-            this.addItem(notAddedItems);
-            menu.update();
+    private static long occupiedSlots(MenuItem[] items) {
+        long slots = 0L;
+        for (int slot = 0, size = Math.min(items.length, Long.SIZE); slot < size; slot++) {
+            if (items[slot] != null) slots |= 1L << slot;
         }
+        return slots;
     }
 
     void recreateInventory() {
         items = Arrays.copyOf(items, menu.size);
+        fingerprints = Arrays.copyOf(fingerprints, items.length);
+        markAllDirty();
     }
 
-   public void contents(MenuItem[] items) {
+    public void contents(MenuItem[] items) {
         this.items = items;
+        edited = true;
+        reindex();
+        markAllDirty();
         menu.update();
     }
 
     public void setItem(int slot, MenuItem item) {
-        items[slot] = item;
+        put(slot, item);
+        markDirty(slot);
     }
 
     public void setItem(@NotNull Slot slot, MenuItem item) {
-        if (slot.isValid()) items[slot.slot] = item;
+        if (slot.isValid()) setItem(slot.slot, item);
     }
 
+    /**
+     * Get the item shown at the slot; the item of this data, or the menu's overlay item if this data has none there.
+     * @param i the slot
+     * @return the item, or null if the slot is empty
+     */
     public MenuItem getItem(int i) {
-        return items[i];
+        MenuItem item = items[i];
+        if (item != null) return item;
+        MenuItem[] overlay = menu.overlay();
+        return overlay == null ? null : overlay[i];
     }
 
     public MenuItem getItem(Slot position) {
-        return position.isValid() ? items[position.slot] : null;
+        return position.isValid() ? getItem(position.slot) : null;
     }
 
     public void forEach(Consumer<? super MenuItem> action) {
@@ -145,16 +226,17 @@ public class ItemData {
 
     public MenuItem removeItem(int index) {
         MenuItem oldItem = items[index];
-        items[index] = null;
+        put(index, null);
+        markDirty(index);
         return oldItem;
     }
 
     public void setItem(int slot, ItemStack itemStack) {
-        items[slot] = MenuItem.of(itemStack);
+        setItem(slot, MenuItem.of(itemStack));
     }
 
     public boolean hasItem(int slot) {
-        return items[slot] != null;
+        return getItem(slot) != null;
     }
 
     public MenuItem getItem(Predicate<MenuItem> action) {
@@ -192,35 +274,310 @@ public class ItemData {
     }
 
     public void removeItem(MenuItem @NotNull [] removingItems) {
-        Set<MenuItem> items = ImmutableSet.copyOf(removingItems);
-        int size = menu.size();
-
-        for (int itemIndex = 0; itemIndex < size && items.contains(this.items[itemIndex]); itemIndex++) {
-            this.items[itemIndex] = null;
+        removeAll(removingItems);
+    }
+
+    /**
+     * Removes every slot holding any of the items, looking their slots up by id instead of scanning.
+     * @param removingItems the items to remove
+     * @return the amount of slots emptied
+     */
+    @CanIgnoreReturnValue
+    public int removeAll(@Nullable MenuItem @NotNull ... removingItems) {
+        int removed = 0;
+        for (MenuItem item : removingItems) {
+            if (item == null) continue;
+            long slots = slotsById.remove(item.getId());
+            if (slots == 0L) continue;
+
+            removed += Long.bitCount(slots);
+            occupied &= ~slots;
+            dirty |= slots;
+            edited = true;
+            while (slots != 0L) {
+                int slot = Long.numberOfTrailingZeros(slots);
+                slots &= slots - 1;
+                slotsByFingerprint.clear(fingerprints[slot], 1L << slot);
+                items[slot] = null;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every slot whose stack equals any of the stacks.
+     * <p>
+     * Only the slots whose cached fingerprint matches are compared with {@link ItemStack#equals(Object)},
+     * a stack changed in place must be set again for its slot to be found, see {@link MenuItem#getItemStack()}.
+     * @param itemStacks the stacks to remove
+     * @return the amount of slots emptied
+     */
+    @CanIgnoreReturnValue
+    public int removeAll(@Nullable ItemStack @NotNull ... itemStacks) {
+        return removeAll(itemStacks, fingerprints(itemStacks));
+    }
+
+    int removeAll(@Nullable ItemStack @NotNull [] itemStacks, int @NotNull [] stackFingerprints) {
+        syncFingerprints();
+        int removed = 0;
+        for (int index = 0; index < itemStacks.length; index++) {
+            long slots = matching(itemStacks[index], stackFingerprints[index]);
+            while (slots != 0L) {
+                int slot = Long.numberOfTrailingZeros(slots);
+                slots &= slots - 1;
+                put(slot, null);
+                markDirty(slot);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Get the slots whose stack equals the stack, not counting the menu's overlay.
+     * @param itemStack the stack
+     * @return the slots as a bitset, bit {@code n} being slot {@code n}
+     */
+    public long getSlots(@Nullable ItemStack itemStack) {
+        syncFingerprints();
+        return matching(itemStack, MenuItem.fingerprint(itemStack));
+    }
+
+    /**
+     * Check if any slot of this data holds an equal stack, not counting the menu's overlay.
+     * @param itemStack the stack
+     * @return true if a slot holds an equal stack
+     */
+    public boolean contains(@Nullable ItemStack itemStack) {
+        return getSlots(itemStack) != 0L;
+    }
+
+    static int @NotNull [] fingerprints(@Nullable ItemStack @NotNull [] itemStacks) {
+        int[] fingerprints = new int[itemStacks.length];
+        for (int index = 0; index < itemStacks.length; index++) fingerprints[index] = MenuItem.fingerprint(itemStacks[index]);
+        return fingerprints;
+    }
+
+    private long matching(@Nullable ItemStack itemStack, int fingerprint) {
+        if (itemStack == null) return 0L;
+        long candidates = slotsByFingerprint.get(fingerprint), slots = candidates;
+        while (candidates != 0L) {
+            int slot = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            // a fingerprint collision, the only case where stacks are deep-compared and don't match
+            if (!items[slot].getItemStack().equals(itemStack)) slots &= ~(1L << slot);
+        }
+        return slots;
+    }
+
+    // an item's stack can be set or re-rendered while it's in a slot, which changes its cached fingerprint;
+    // only reads the cached ints, and only if some fingerprint changed since the last look
+    private void syncFingerprints() {
+        int changes = MenuItem.fingerprintChanges();
+        if (changes == fingerprintChanges) return;
+        fingerprintChanges = changes;
+
+        long slots = occupied;
+        while (slots != 0L) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+
+            int fingerprint = items[slot].getFingerprint();
+            if (fingerprint == fingerprints[slot]) continue;
+            slotsByFingerprint.clear(fingerprints[slot], 1L << slot);
+            slotsByFingerprint.set(fingerprint, 1L << slot);
+            fingerprints[slot] = fingerprint;
         }
     }
 
-    public void recreateItems(Inventory inventory) {
+    /**
+     * Get the slots holding an item of this data, not counting the menu's overlay.
+     * @param item the item
+     * @return the slots as a bitset, bit {@code n} being slot {@code n}
+     */
+    public long getSlots(@NotNull MenuItem item) {
+        return slotsById.get(item.getId());
+    }
+
+    /**
+     * Check if an item is in this data, not counting the menu's overlay.
+     * @param item the item
+     * @return true if at least one slot holds the item
+     */
+    public boolean contains(@NotNull MenuItem item) {
+        return slotsById.get(item.getId()) != 0L;
+    }
+
+    /**
+     * Get the first slot holding an item of this data, not counting the menu's overlay.
+     * @param item the item
+     * @return the slot, or -1 if the item isn't in this data
+     */
+    public int indexOf(@NotNull MenuItem item) {
+        long slots = slotsById.get(item.getId());
+        return slots == 0L ? -1 : Long.numberOfTrailingZeros(slots);
+    }
+
+    /**
+     * Pushes every slot into the inventory, then clears the changed slots.
+     * @param inventory the inventory to push the slots into
+     * @return the amount of slots written
+     */
+    @CanIgnoreReturnValue
+    public int recreateItems(Inventory inventory) {
         int size = items.length;
         boolean updateStates = menu.updateStatesOnUpdate;
-        Bukkit.getLogger().info("Size of size before expected error: " + size);
         for (int itemIndex = 0; itemIndex < size; itemIndex++) {
-            MenuItem item = items[itemIndex];
+            MenuItem item = getItem(itemIndex);
+            if (item != null && updateStates && item.hasStates()) item.updateStates();
+            inventory.setItem(itemIndex, item == null ? null : item.getItemStack());
+        }
+        dirty = 0L;
+        return size;
+    }
+
+    /**
+     * Pushes only the slots which changed since the last push into the inventory, then clears them.
+     * <p>
+     * Unlike {@link #recreateItems(Inventory)} this does one {@link Inventory#setItem(int, ItemStack)} per changed slot
+     * instead of one per slot of the menu.
+     * @param inventory the inventory to push the changed slots into
+     * @return the amount of slots written
+     */
+    @CanIgnoreReturnValue
+    public int recreateDirtyItems(Inventory inventory) {
+        return recreateDirtyItems(inventory, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Pushes at most {@code limit} of the changed slots into the inventory, lowest slots first, and clears only those.
+     * @param inventory the inventory to push the changed slots into
+     * @param limit the most slots to write
+     * @return the amount of slots written
+     */
+    @CanIgnoreReturnValue
+    public int recreateDirtyItems(Inventory inventory, int limit) {
+        long slots = dirty;
+        if (Long.bitCount(slots) > limit) {
+            long taken = 0L;
+            for (int count = 0; count < limit; count++) {
+                long lowest = slots & -slots;
+                taken |= lowest;
+                slots ^= lowest;
+            }
+            slots = taken;
+        }
+        dirty &= ~slots;
+        int written = Long.bitCount(slots);
+
+        boolean updateStates = menu.updateStatesOnUpdate;
+        while (slots != 0L) {
+            int itemIndex = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+
+            MenuItem item = getItem(itemIndex);
             if (item != null && updateStates && item.hasStates()) item.updateStates();
             inventory.setItem(itemIndex, item == null ? null : item.getItemStack());
         }
+        return written;
+    }
+
+    /**
+     * Marks every slot holding an item with states as changed, so their states get refreshed on the next push.
+     */
+    public void markStatefulDirty() {
+        int size = items.length;
+        for (int itemIndex = 0; itemIndex < size; itemIndex++) {
+            MenuItem item = getItem(itemIndex);
+            if (item != null && item.hasStates()) markDirty(itemIndex);
+        }
+    }
+
+    public void markDirty(int slot) {
+        dirty |= 1L << slot;
+    }
+
+    public void markAllDirty() {
+        dirty = allSlots(items.length);
+    }
+
+    public boolean isDirty() {
+        return dirty != 0L;
+    }
+
+    public boolean isDirty(int slot) {
+        return (dirty & (1L << slot)) != 0L;
+    }
+
+    /**
+     * Get the changed slots as a bitset, bit {@code n} being slot {@code n}.
+     * @return the changed slots
+     */
+    public long getDirtySlots() {
+        return dirty;
+    }
+
+    public void clearDirty() {
+        dirty = 0L;
+    }
+
+    public void clearDirty(long slots) {
+        dirty &= ~slots;
+    }
+
+    private static long allSlots(int size) {
+        return size >= Long.SIZE ? -1L : (1L << size) - 1;
     }
 
     public void updateItem(int slot, @NotNull ItemStack itemStack, MenuItem guiItem) {
+        markDirty(slot);
         if (guiItem == null) {
-            items[slot] = MenuItem.of(itemStack);
+            put(slot, MenuItem.of(itemStack));
             return;
         }
         guiItem.setItemStack(itemStack);
-        items[slot] = guiItem;
+        put(slot, guiItem);
+    }
+
+    private void put(int slot, MenuItem item) {
+        long bit = 1L << slot;
+        MenuItem previous = items[slot];
+        if (previous != null) {
+            slotsById.clear(previous.getId(), bit);
+            slotsByFingerprint.clear(fingerprints[slot], bit);
+        }
+
+        items[slot] = item;
+        edited = true;
+        if (item == null) {
+            occupied &= ~bit;
+            return;
+        }
+        occupied |= bit;
+        index(slot, item);
+    }
+
+    private void index(int slot, MenuItem item) {
+        int fingerprint = item.getFingerprint();
+        fingerprints[slot] = fingerprint;
+        slotsById.set(item.getId(), 1L << slot);
+        slotsByFingerprint.set(fingerprint, 1L << slot);
+    }
+
+    private void reindex() {
+        slotsById.clear();
+        slotsByFingerprint.clear();
+        fingerprints = new int[items.length];
+        occupied = 0L;
+        for (int slot = 0, size = Math.min(items.length, Long.SIZE); slot < size; slot++) {
+            MenuItem item = items[slot];
+            if (item == null) continue;
+            occupied |= 1L << slot;
+            index(slot, item);
+        }
     }
 
     public void removeItem(ItemStack[] items) {
-        indexed((item, index) -> { if (items[index].equals(item.getItemStack())) removeItem(index); });
+        removeAll(items);
     }
 }
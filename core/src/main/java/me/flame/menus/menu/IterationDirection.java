@@ -1,167 +1,241 @@
 package me.flame.menus.menu;
 
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
 /**
  * Iteration direction of a {@link Menu}
+ * <p>
+ * Every direction has its traversal orders precomputed for every amount of rows and starting slot,
+ * so iterating a menu walks a shared {@code int[]} instead of shifting {@link Slot}s.
  * @author Mqzn (Mqzen), FlameyosFlow (Mostly Mqzen)
  */
 @SuppressWarnings("unused")
 public enum IterationDirection {
     HORIZONTAL {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            int oldCol = oldPos.column;
-            int oldRow = oldPos.row;
-
-            return oldCol == 9 && oldRow < maxRows
-                    ? oldPos.setSlot(oldRow + 1, 1)
-                    : oldPos.setSlot(oldRow, oldCol + 1);
+        public int next(int slot, int rows) {
+            return slot + 1 < rows * 9 ? slot + 1 : -1;
         }
     },
 
     VERTICAL {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            int oldCol = oldPos.column;
-            int oldRow = oldPos.row;
-
-            return (oldCol < 9 && oldRow == maxRows)
-                    ? oldPos.setSlot(1, oldCol + 1)
-                    : oldPos.setSlot(oldRow + 1, oldCol);
+        public int next(int slot, int rows) {
+            int row = slot / 9, column = slot % 9;
+            if (row < rows - 1) return slot + 9;
+            return column < 8 ? column + 1 : -1;
         }
     },
 
     UPWARDS_ONLY {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            return new Slot(oldPos.row - 1, oldPos.column);
+        public int next(int slot, int rows) {
+            return slot >= 9 ? slot - 9 : -1;
+        }
+
+        @Override
+        public int first(int rows) {
+            return (rows - 1) * 9;
         }
     },
 
     DOWNWARDS_ONLY {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            return new Slot(oldPos.row + 1, oldPos.column);
+        public int next(int slot, int rows) {
+            return slot / 9 < rows - 1 ? slot + 9 : -1;
         }
     },
 
     RIGHT_ONLY {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            int col = oldPos.column + 1;
-            return col > 9 ? Slot.NaS : oldPos.setSlot(oldPos.row, col);
+        public int next(int slot, int rows) {
+            return slot % 9 < 8 ? slot + 1 : -1;
         }
     },
 
     LEFT_ONLY {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            int col = oldPos.column - 1;
-            return col < 0 ? Slot.NaS : oldPos.setSlot(oldPos.row, col);
+        public int next(int slot, int rows) {
+            return slot % 9 > 0 ? slot - 1 : -1;
+        }
+
+        @Override
+        public int first(int rows) {
+            return 8;
         }
     },
 
     RIGHT_UPWARDS_ONLY {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            Slot upwardSlot = UPWARDS_ONLY.shift(oldPos, maxRows);
-            Slot rightSlot = RIGHT_ONLY.shift(oldPos, maxRows);
-            return oldPos.setSlot(upwardSlot.row, rightSlot.column);
+        public int next(int slot, int rows) {
+            return slot >= 9 && slot % 9 < 8 ? slot - 8 : -1;
+        }
+
+        @Override
+        public int first(int rows) {
+            return (rows - 1) * 9;
         }
     },
 
     RIGHT_DOWNWARDS_ONLY {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            Slot downwardSlot = DOWNWARDS_ONLY.shift(oldPos, maxRows);
-            Slot rightSlot = RIGHT_ONLY.shift(oldPos, maxRows);
-            return oldPos.setSlot(downwardSlot.row, rightSlot.column);
+        public int next(int slot, int rows) {
+            return slot / 9 < rows - 1 && slot % 9 < 8 ? slot + 10 : -1;
         }
     },
 
     LEFT_UPWARDS {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            Slot upwardSlot = UPWARDS_ONLY.shift(oldPos, maxRows);
-            Slot leftSlot = LEFT_ONLY.shift(oldPos, maxRows);
-            return oldPos.setSlot(upwardSlot.row, leftSlot.column);
+        public int next(int slot, int rows) {
+            return slot >= 9 && slot % 9 > 0 ? slot - 10 : -1;
+        }
+
+        @Override
+        public int first(int rows) {
+            return rows * 9 - 1;
         }
     },
 
     LEFT_DOWNWARDS {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            Slot downwardSlot = DOWNWARDS_ONLY.shift(oldPos, maxRows);
-            Slot leftSlot = LEFT_ONLY.shift(oldPos, maxRows);
-            return oldPos.setSlot(downwardSlot.row, leftSlot.column);
+        public int next(int slot, int rows) {
+            return slot / 9 < rows - 1 && slot % 9 > 0 ? slot + 8 : -1;
+        }
+
+        @Override
+        public int first(int rows) {
+            return 8;
         }
     },
 
     BACKWARDS_HORIZONTAL {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            int oldCol = oldPos.column;
-            int oldRow = oldPos.row;
-
-            if (oldCol == 1 && oldRow >= 1) {
-                oldCol = 9;
-                oldRow--;
-            } else {
-                oldCol--;
-            }
+        public int next(int slot, int rows) {
+            return slot > 0 ? slot - 1 : -1;
+        }
 
-            return oldPos.setSlot(oldRow, oldCol);
+        @Override
+        public int first(int rows) {
+            return rows * 9 - 1;
         }
     },
 
     BACKWARDS_VERTICAL {
         @Override
-        public Slot shift(Slot oldPos, int maxRows) {
-            int oldCol = oldPos.column;
-            int oldRow = oldPos.row;
+        public int next(int slot, int rows) {
+            int row = slot / 9, column = slot % 9;
+            if (row > 0) return slot - 9;
+            return column > 0 ? (rows - 1) * 9 + column - 1 : -1;
+        }
+
+        @Override
+        public int first(int rows) {
+            return rows * 9 - 1;
+        }
+    };
 
-            if (oldCol > 1 && oldRow < 6) {
-                oldCol--;
-                oldRow = 6;
-            } else {
-                oldRow--;
+    // [direction][rows - 1][starting slot], built once since every order is a pure function of those three
+    private static final int[][][][] ORDERS = new int[values().length][6][][];
+
+    static {
+        for (IterationDirection direction : values()) {
+            for (int rows = 1; rows <= 6; rows++) {
+                int[][] orders = new int[rows * 9][];
+                for (int start = 0; start < orders.length; start++) orders[start] = direction.compute(rows, start);
+                ORDERS[direction.ordinal()][rows - 1] = orders;
             }
+        }
+    }
+
+    /**
+     * Get the slot after the given slot in this direction.
+     *
+     * @param  slot  the slot to shift from
+     * @param  rows  the amount of rows of the menu
+     * @return       the next slot, or -1 if the given slot is the last one in this direction
+     */
+    public abstract int next(int slot, int rows);
+
+    /**
+     * Get the slot iterating in this direction starts at when no starting slot is given.
+     *
+     * @param  rows  the amount of rows of the menu
+     * @return       the first slot
+     */
+    public int first(int rows) {
+        return 0;
+    }
 
-            return oldPos.setSlot(oldRow, oldCol);
+    /**
+     * Get every slot visited in this direction, in order.
+     * <p>
+     * The array is shared by every caller and must not be modified.
+     *
+     * @param  rows   the amount of rows of the menu, between 1 and 6
+     * @param  start  the slot to start at, included in the order
+     * @return        the slots in the order they're visited
+     *                <p>How different directions work (6 rows, from their {@linkplain #first first} slot):</p>
+     *                <p></p>
+     *                HORIZONTAL: 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, etc.
+     *                <p></p>
+     *                VERTICAL: 0, 9, 18, 27, 36, 45, 1, 10, etc.
+     *                <p></p>
+     *                UPWARDS_ONLY: 45, 36, 27, 18, 9, 0.
+     *                <p></p>
+     *                DOWNWARDS_ONLY: 0, 9, 18, 27, 36, 45.
+     *                <p></p>
+     *                RIGHT_ONLY: 0, 1, 2, 3, 4, 5, 6, 7, 8.
+     *                <p></p>
+     *                LEFT_ONLY: 8, 7, 6, 5, 4, 3, 2, 1, 0.
+     *                <p></p>
+     *                RIGHT_UPWARDS_ONLY: 45, 37, 29, 21, 13, 5.
+     *                <p></p>
+     *                RIGHT_DOWNWARDS_ONLY: 0, 10, 20, 30, 40, 50.
+     *                <p></p>
+     *                LEFT_UPWARDS: 53, 43, 33, 23, 13, 3.
+     *                <p></p>
+     *                LEFT_DOWNWARDS: 8, 16, 24, 32, 40, 48.
+     *                <p></p>
+     *                BACKWARDS_HORIZONTAL: 53, 52, 51, 50, 49, etc.
+     *                <p></p>
+     *                BACKWARDS_VERTICAL: 53, 44, 35, 26, 17, 8, 52, etc.
+     */
+    public int @NotNull [] order(int rows, int start) {
+        if (rows < 1 || rows > 6) {
+            throw new IllegalArgumentException(
+                    "Rows expected to be between 1 and 6, got " + rows +
+                    "\nFix: Use the amount of rows of the menu being iterated."
+            );
         }
-    };
+        if (start < 0 || start >= rows * 9) {
+            throw new IllegalArgumentException(
+                    "Starting slot expected to be between 0 and " + (rows * 9 - 1) + ", got " + start +
+                    "\nFix: Start at a slot inside of the menu."
+            );
+        }
+        return ORDERS[ordinal()][rows - 1][start];
+    }
 
     /**
      * Shifting the slot "oldPos" by "maxRows" to the next slot.
      *
-     * @param  oldPos   the old position to shift FROM
+     * @param  oldPos   the old position to shift FROM, updated in place
      * @param  maxRows  the maximum amount of rows the menu may have
-     * @return          the shifted position that can AND will depend on the {@link IterationDirection} direction
-     *                  <p>How different directions work:</p>
-     *                  <p></p>
-     *                  HORIZONTAL: 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, etc.
-     *                  <p></p>
-     *                  VERTICAL: 0, 9, 18, 27, 36, 45, 1, 10, etc.
-     *                  <p></p>
-     *                  UPWARDS_ONLY: 45, 36, 27, 18, 9, 0.
-     *                  <p></p>
-     *                  DOWNWARDS_ONLY: 0, 9, 18, 27, 36, 45.
-     *                  <p></p>
-     *                  RIGHT_ONLY: 0, 1, 2, 3, 4, 5, 6, 7, 8, 9.
-     *                  <p></p>
-     *                  LEFT_ONLY: 9, 8, 7, 6, 5, 4, 3, 2, 1, 0
-     *                  <p></p>
-     *                  RIGHT_UPWARDS_ONLY: 45, 37, 29, 21, 13, 5, 0.
-     *                  <p></p>
-     *                  RIGHT_DOWNWARDS_ONLY: 0, 10, 20, 30, 40, 50.
-     *                  <p></p>
-     *                  LEFT_UPWARDS: 53, 44, 35, 26, 17, 8, 0.
-     *                  <p></p>
-     *                  LEFT_DOWNWARDS: 7, 16, 25, 34, 40, 48.
-     *                  <p></p>
-     *                  BACKWARDS_HORIZONTAL: 53, 52, 51, 50, 49, etc.
-     *                  <p></p>
-     *                  BACKWARDS_VERTICAL: 53, 44, 35, 26, 17, 17, 8, 52, etc.
-     *
+     * @return          the shifted position, or {@link Slot#NaS} if there's no next slot
+     * @see #order(int, int)
      */
-    public abstract Slot shift(Slot oldPos, int maxRows);
+    public Slot shift(Slot oldPos, int maxRows) {
+        if (!oldPos.isValid()) return Slot.NaS;
+        int next = next(oldPos.slot, maxRows);
+        return next == -1 ? Slot.NaS : oldPos.setSlot(next);
+    }
+
+    private int[] compute(int rows, int start) {
+        int[] order = new int[rows * 9];
+        int length = 0;
+        for (int slot = start; slot != -1; slot = next(slot, rows)) order[length++] = slot;
+        return length == order.length ? order : Arrays.copyOf(order, length);
+    }
 }
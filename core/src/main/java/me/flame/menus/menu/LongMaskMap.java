@@ -0,0 +1,70 @@
+package me.flame.menus.menu;
+
+import me.flame.menus.util.LongTable;
+
+/**
+ * A map from a {@code long} key to a {@code long} bitmask, without boxing.
+ * <p>
+ * A key is present as long as its mask has a bit set, clearing its last bit removes it.
+ * Used by {@link ItemData} to index the slots of every item by the item's id.
+ */
+final class LongMaskMap {
+    private final LongTable table = new LongTable(1);
+
+    /**
+     * Get the mask of a key.
+     * @param key the key
+     * @return the mask, 0 if the key isn't present
+     */
+    long get(long key) {
+        int index = table.indexOf(key, 0L, 0L);
+        return index == -1 ? 0L : table.valueAt(index);
+    }
+
+    /**
+     * Set bits in the mask of a key, adding the key if it isn't present.
+     * @param key the key
+     * @param bits the bits to set, at least one
+     */
+    void set(long key, long bits) {
+        int index = table.indexOf(key, 0L, 0L);
+        if (index == -1) table.insert(key, 0L, 0L, bits);
+        else table.setValueAt(index, table.valueAt(index) | bits);
+    }
+
+    /**
+     * Clear bits in the mask of a key, removing the key once its mask is empty.
+     * @param key the key
+     * @param bits the bits to clear
+     */
+    void clear(long key, long bits) {
+        int index = table.indexOf(key, 0L, 0L);
+        if (index == -1) return;
+
+        long mask = table.valueAt(index) & ~bits;
+        if (mask != 0L) table.setValueAt(index, mask);
+        else table.removeAt(index);
+    }
+
+    /**
+     * Remove a key.
+     * @param key the key
+     * @return the mask the key had, 0 if it wasn't present
+     */
+    long remove(long key) {
+        int index = table.indexOf(key, 0L, 0L);
+        if (index == -1) return 0L;
+
+        long mask = table.valueAt(index);
+        table.removeAt(index);
+        return mask;
+    }
+
+    void clear() {
+        table.clear();
+    }
+
+    int size() {
+        return table.size();
+    }
+}
@@ -1,7 +1,6 @@
 package me.flame.menus.menu;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 
 import lombok.Getter;
@@ -9,6 +8,8 @@ import lombok.NonNull;
 import lombok.Setter;
 
 import me.flame.menus.adventure.TextHolder;
+import me.flame.menus.components.metrics.MenuMetrics;
+import me.flame.menus.components.metrics.MenuMetricsProvider;
 import me.flame.menus.components.nbt.*;
 import me.flame.menus.events.ClickActionEvent;
 import me.flame.menus.events.BeforeAnimatingEvent;
@@ -18,6 +19,7 @@ import me.flame.menus.menu.fillers.*;
 import me.flame.menus.menu.iterator.MenuIterator;
 import me.flame.menus.modifiers.Modifier;
 import me.flame.menus.util.ItemResponse;
+import me.flame.menus.util.PluginProvider;
 import me.flame.menus.util.VersionHelper;
 
 import org.bukkit.Bukkit;
@@ -29,7 +31,6 @@ import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
-import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitScheduler;
 
 import org.jetbrains.annotations.*;
@@ -69,6 +70,30 @@ public class Menu implements IMenu, RandomAccess, Serializable {
     @Setter @Getter
     protected boolean dynamicSizing = false, updating = false, updateStatesOnUpdate = false;
 
+    /**
+     * When enabled, {@link #update()} only pushes the slots that changed since the last update
+     * instead of recreating every slot of the inventory.
+     */
+    @Setter @Getter
+    protected boolean partialUpdates = false;
+
+    /**
+     * When enabled, clicks reuse a {@link ClickActionEvent} per thread instead of allocating one per click,
+     * actions must not keep the event after they return; async items always get their own copy.
+     */
+    @Setter @Getter
+    protected boolean pooledClickEvents = false;
+
+    /**
+     * When enabled, {@link #update()} only queues this menu in the {@link RenderQueue},
+     * which pushes its changed slots to the viewers once per tick within the queue's slot budget.
+     */
+    @Setter @Getter
+    protected boolean queuedRendering = false;
+
+    // whether this menu waits in the render queue
+    boolean queued;
+
     boolean hasAnimationsStarted = false;
 
     @Getter
@@ -80,18 +105,25 @@ public class Menu implements IMenu, RandomAccess, Serializable {
 
     protected ItemResponse[] slotActions;
 
+    // depth of the open batches, and whether an update was asked for during them
+    private int batchDepth;
+    private boolean updateDeferred;
+
     @Getter
     final List<Animation> animations = new ArrayList<>(5);
 
     protected static final Plugin plugin;
 
     static {
-        plugin = JavaPlugin.getProvidingPlugin(Menu.class);
+        plugin = PluginProvider.get();
         ItemNbt.wrapper(VersionHelper.IS_PDC_VERSION ? new Pdc(plugin) : new LegacyNbt());
         Bukkit.getPluginManager().registerEvents(new MenuListeners(plugin), plugin);
     }
 
-    @Setter Consumer<ClickActionEvent> outsideClickAction = event -> {}, bottomClickAction = event -> {}, topClickAction = event -> {}, clickAction = event -> {};
+    // the default click action, the listener doesn't create a ClickActionEvent for actions that are still this
+    static final Consumer<ClickActionEvent> NO_CLICK_ACTION = event -> {};
+
+    @Setter Consumer<ClickActionEvent> outsideClickAction = NO_CLICK_ACTION, bottomClickAction = NO_CLICK_ACTION, topClickAction = NO_CLICK_ACTION, clickAction = NO_CLICK_ACTION;
     @Setter BiConsumer<InventoryCloseEvent, Result> closeAction = (event, result) -> {};
     @Setter Consumer<InventoryOpenEvent> openAction = event -> {};
     @Setter Consumer<InventoryDragEvent> dragAction = event -> {};
@@ -122,6 +154,39 @@ public class Menu implements IMenu, RandomAccess, Serializable {
         this.inventory = this.title.toInventory(this, type.getType());
     }
 
+    /**
+     * Items shown in every slot the current {@link ItemData} leaves empty, shared by all pages of a menu.
+     * @return the overlay, or null if this menu has none
+     */
+    MenuItem @Nullable [] overlay() {
+        return null;
+    }
+
+    /**
+     * The item the given viewer sees in a slot, which is the same for every viewer unless the menu is personalized.
+     * @param entity the viewer
+     * @param slot the slot
+     * @return the item in the slot for that viewer
+     */
+    @Nullable
+    MenuItem itemFor(@NotNull HumanEntity entity, int slot) {
+        return getItem(slot);
+    }
+
+    /**
+     * Called once a viewer closed this menu and isn't being kept in it by the close action.
+     * @param entity the viewer
+     */
+    void closed(@NotNull HumanEntity entity) {}
+
+    /**
+     * Check if anyone is still viewing this menu, animations stop once nobody is.
+     * @return true if the menu has viewers
+     */
+    boolean hasViewers() {
+        return !inventory.getViewers().isEmpty();
+    }
+
     public ItemResponse[] getSlotActions() {
         return (slotActions == null) ? (slotActions = new ItemResponse[size]) : slotActions;
     }
@@ -161,6 +226,18 @@ public class Menu implements IMenu, RandomAccess, Serializable {
         return (changed = addItem(items.toArray(new MenuItem[0])));
     }
 
+    /**
+     * Adds the items to the free slots of the menu in a single pass, without ever resizing it.
+     * @param items the items to add
+     * @return the items which didn't fit, in order, or an empty array if every item was added
+     * @see ItemData#insert(MenuItem...)
+     */
+    public MenuItem @NotNull [] insertItems(@NotNull final MenuItem... items) {
+        MenuItem[] overflow = data.insert(items);
+        if (overflow.length != items.length) changed = true;
+        return overflow;
+    }
+
     public void setItem(@NonNull Slot position, ItemStack item) {
         this.data.setItem(position, MenuItem.of(item));
         changed = true;
@@ -206,11 +283,20 @@ public class Menu implements IMenu, RandomAccess, Serializable {
     }
 
     public boolean hasItem(ItemStack item) {
-        return data.getItem(itemOne -> itemOne.getItemStack().equals(item)) != null;
+        return data.contains(item);
     }
 
     public boolean hasItem(MenuItem item) {
-        return this.getItem(itemOne -> itemOne.equals(item)) != null;
+        return item != null && data.contains(item);
+    }
+
+    /**
+     * Get the first slot holding the item.
+     * @param item the item
+     * @return the slot, or -1 if the menu doesn't hold the item
+     */
+    public int indexOf(@NotNull MenuItem item) {
+        return data.indexOf(item);
     }
 
     public Optional<MenuItem> get(Predicate<MenuItem> itemDescription) {
@@ -234,26 +320,20 @@ public class Menu implements IMenu, RandomAccess, Serializable {
     }
 
     public void removeItem(@NotNull final ItemStack... itemStacks) {
-        removeItemStacks(List.of(itemStacks));
+        if (data.removeAll(itemStacks) != 0) changed = true;
     }
 
     public void removeItemStacks(@NotNull final List<ItemStack> itemStacks) {
-        Set<ItemStack> set = ImmutableSet.copyOf(itemStacks);
-        data.indexed((item, index) -> { if (set.contains(item.getItemStack())) this.data.removeItem(index); });
-        changed = true;
+        removeItem(itemStacks.toArray(new ItemStack[0]));
     }
 
     public void removeItem(@NotNull final MenuItem... items) {
-        Set<MenuItem> set = ImmutableSet.copyOf(items);
-        data.indexed((item, index) -> { if (set.contains(item)) this.data.removeItem(index); });
-        changed = true;
+        if (data.removeAll(items) != 0) changed = true;
     }
 
     @Override
     public void removeItem(@NotNull final List<MenuItem> itemStacks) {
-        Set<MenuItem> set = ImmutableSet.copyOf(itemStacks);
-        data.indexed((item, index) -> { if (set.contains(item)) this.data.removeItem(index); });
-        changed = true;
+        removeItem(itemStacks.toArray(new MenuItem[0]));
     }
 
     @Contract("_ -> new")
@@ -274,12 +354,123 @@ public class Menu implements IMenu, RandomAccess, Serializable {
 
     @Override
     public void update() {
-        if (!changed) return;
+        if (!changed || deferUpdate()) return;
+        if (partialUpdates) {
+            updateChanges();
+            return;
+        }
         this.updating = true;
         updatePlayerInventories(inventory, player -> ((Player) player).updateInventory());
         this.updating = false;
     }
 
+    @Override
+    public void updateChanges() {
+        if (deferUpdate()) return;
+        if (updateStatesOnUpdate) data.markStatefulDirty();
+        flush(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Pushes at most {@code budget} of the changed slots to the viewers.
+     * @return the amount of slots written
+     */
+    int flush(int budget) {
+        if (!data.isDirty()) return 0;
+        int written = data.recreateDirtyItems(inventory, budget);
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        if (metrics.isEnabled()) metrics.recordSlotsWritten(written);
+        return written;
+    }
+
+    /**
+     * Apply several changes to this menu with a single render.
+     * <p>
+     * Every update asked for while the mutations run, by this menu, its pages or its frames, is deferred.
+     * When the outermost batch ends, the slots changed by all of them are pushed at once,
+     * whether or not an update was asked for inside the batch.
+     * <pre>{@code
+     *     menu.batch(m -> {
+     *         m.setItem(10, first);
+     *         m.setItem(11, second);
+     *         m.update(); // deferred
+     *     });
+     * }</pre>
+     * @param mutations the changes to apply
+     */
+    public void batch(@NotNull Consumer<? super Menu> mutations) {
+        try (Batch ignored = batch()) {
+            mutations.accept(this);
+        }
+    }
+
+    /**
+     * Start a batch of changes, to be closed once they're applied; see {@link #batch(Consumer)}.
+     * <pre>{@code
+     *     try (Menu.Batch batch = menu.batch()) {
+     *         menu.setItem(10, first);
+     *         menu.setItem(11, second);
+     *     }
+     * }</pre>
+     * @return the batch, rendering the changes when the outermost batch is closed
+     */
+    @NotNull
+    @Contract(" -> new")
+    public Batch batch() {
+        batchDepth++;
+        return new Batch(this);
+    }
+
+    /**
+     * Check if this menu is inside a batch, deferring its updates.
+     * @return true if a batch is open
+     */
+    public boolean isBatching() {
+        return batchDepth != 0;
+    }
+
+    // true if an update must wait for the outermost batch to end, or for the render queue
+    final boolean deferUpdate() {
+        if (batchDepth != 0) {
+            updateDeferred = true;
+            return true;
+        }
+        if (!queuedRendering) return false;
+        if (updateStatesOnUpdate) data.markStatefulDirty();
+        RenderQueue.get().enqueue(this);
+        return true;
+    }
+
+    private void endBatch() {
+        if (--batchDepth != 0) return;
+        boolean deferred = updateDeferred;
+        updateDeferred = false;
+        if (deferred || data.isDirty()) updateChanges();
+    }
+
+    /**
+     * A batch of changes to a menu, see {@link Menu#batch()}.
+     */
+    public static final class Batch implements AutoCloseable {
+        @Nullable
+        private Menu menu;
+
+        private Batch(@NotNull Menu menu) {
+            this.menu = menu;
+        }
+
+        /**
+         * End this batch, closing it again does nothing.
+         */
+        @Override
+        public void close() {
+            Menu menu = this.menu;
+            if (menu == null) return;
+            this.menu = null;
+            menu.endBatch();
+        }
+    }
+
     public void updatePer(long repeatTime) {
         SCHEDULER.runTaskTimer(plugin, this::update, 0, repeatTime);
     }
@@ -309,7 +500,9 @@ public class Menu implements IMenu, RandomAccess, Serializable {
     }
 
     private void updatePlayerInventories(@NotNull Inventory oldInventory, Consumer<HumanEntity> entityPredicate) {
-        data.recreateItems(inventory);
+        int written = data.recreateItems(inventory);
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        if (metrics.isEnabled()) metrics.recordSlotsWritten(written);
         oldInventory.getViewers().forEach(entityPredicate);
     }
 
@@ -438,6 +631,17 @@ public class Menu implements IMenu, RandomAccess, Serializable {
     @Override
     public boolean allModifiersAdded() { return modifiers.size() == 4; }
 
+    @Override
+    public int getModifierMask() {
+        // read straight from the set, which can also be changed through getModifiers()
+        int mask = 0;
+        if (modifiers.contains(Modifier.DISABLE_ITEM_SWAP)) mask |= Modifier.DISABLE_ITEM_SWAP.mask();
+        if (modifiers.contains(Modifier.DISABLE_ITEM_REMOVAL)) mask |= Modifier.DISABLE_ITEM_REMOVAL.mask();
+        if (modifiers.contains(Modifier.DISABLE_ITEM_ADD)) mask |= Modifier.DISABLE_ITEM_ADD.mask();
+        if (modifiers.contains(Modifier.DISABLE_ITEM_CLONE)) mask |= Modifier.DISABLE_ITEM_CLONE.mask();
+        return mask;
+    }
+
     public void recreateInventory() {
         rows++;
         size = rows * 9;
@@ -4,11 +4,17 @@ import lombok.NonNull;
 import me.flame.menus.adventure.TextHolder;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.modifiers.Modifier;
+import me.flame.menus.util.PluginProvider;
+import org.bukkit.Bukkit;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.EnumSet;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  * Universal menu builder for menus (Menu, PaginatedMenu).
@@ -29,6 +35,8 @@ public class MenuBuilder {
 
     private MenuItem nextItem, previousItem;
 
+    private IntFunction<MenuItem[]> pageSource;
+
     /**
      * Sets the title of the menu.
      *
@@ -117,6 +125,19 @@ public class MenuBuilder {
         return this;
     }
 
+    /**
+     * Build the pages of the paginated menu on demand instead of creating them all up front.
+     *
+     * @param  pageSource  the function building the items of a page from its index
+     * @return             the builder for chaining
+     * @see PaginatedMenu#create(TextHolder, int, int, EnumSet, IntFunction)
+     */
+    @NotNull
+    public MenuBuilder pageSource(@NotNull final IntFunction<MenuItem[]> pageSource) {
+        this.pageSource = pageSource;
+        return this;
+    }
+
     public MenuBuilder nextPageItem(int nextItemSlot, MenuItem nextItem) {
         this.nextItemSlot = nextItemSlot;
         this.nextItem = nextItem;
@@ -167,17 +188,90 @@ public class MenuBuilder {
     public PaginatedMenu pagination() {
         checkRequirements(rows, title);
         checkPaginatedRequirements(pages, nextItemSlot, previousItemSlot, nextItem, previousItem);
-        PaginatedMenu menu = type == MenuType.CHEST
-                ? PaginatedMenu.create(title, rows, pages, modifiers)
-                : PaginatedMenu.create(title, type, pages, modifiers);
+        PaginatedMenu menu;
+        if (pageSource != null) {
+            menu = type == MenuType.CHEST
+                    ? PaginatedMenu.create(title, rows, pages, modifiers, pageSource)
+                    : PaginatedMenu.create(title, type, pages, modifiers, pageSource);
+        } else {
+            menu = type == MenuType.CHEST
+                    ? PaginatedMenu.create(title, rows, pages, modifiers)
+                    : PaginatedMenu.create(title, type, pages, modifiers);
+        }
 
-        @NotNull List<ItemData> pages = menu.pages;
         if (nextItemSlot != -1 && nextItem != null) menu.setPageItem(nextItemSlot, nextItem);
 
         if (previousItemSlot != -1 && previousItem != null) menu.setPageItem(previousItemSlot, previousItem);
         return menu;
     }
 
+    /**
+     * Build the menu with its contents filled off the main thread, see {@link #buildAsync(Consumer, Executor)}.
+     * <p>
+     * The contents are filled on the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param  contents  fills the slots of the menu, index {@code n} being slot {@code n}
+     * @return           the menu, completed on the main thread
+     */
+    @NotNull
+    public CompletableFuture<Menu> buildAsync(@NotNull Consumer<MenuItem[]> contents) {
+        return buildAsync(contents, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Build the menu with its contents filled off the main thread.
+     * <p>
+     * Everything expensive about building contents, such as {@link MenuItem#of}, item meta and lore edits, or creating states,
+     * happens in {@code contents} on the executor. Only creating the inventory and pushing the prepared slots happens on the main thread.
+     * <pre>{@code
+     *     Menu.builder().title("Shop").rows(6).buildAsync(items -> {
+     *         for (int slot = 0; slot < items.length; slot++) items[slot] = shopItem(slot);
+     *     }).thenAccept(menu -> menu.open(player));
+     * }</pre>
+     * {@code contents} must not touch the world or any inventory.
+     *
+     * @param  contents  fills the slots of the menu, index {@code n} being slot {@code n}
+     * @param  executor  the executor to fill the contents on
+     * @return           the menu, completed on the main thread
+     */
+    @NotNull
+    public CompletableFuture<Menu> buildAsync(@NotNull Consumer<MenuItem[]> contents, @NotNull Executor executor) {
+        return prepareAsync(contents, executor).thenApplyAsync(Menu::create, MenuBuilder::runOnMainThread);
+    }
+
+    /**
+     * Prepare the data of the menu off the main thread without creating it, so it can be created later with {@link Menu#create(MenuData)}.
+     *
+     * @param  contents  fills the slots of the menu, index {@code n} being slot {@code n}
+     * @param  executor  the executor to fill the contents on
+     * @return           the data of the menu, completed on the executor
+     */
+    @NotNull
+    public CompletableFuture<MenuData> prepareAsync(@NotNull Consumer<MenuItem[]> contents, @NotNull Executor executor) {
+        checkRequirements(rows, title);
+        // copy the builder's state now, the builder may be reused while the contents are being filled
+        final TextHolder title = this.title;
+        final MenuType type = this.type;
+        final int rows = this.rows;
+        final EnumSet<Modifier> modifiers = EnumSet.copyOf(this.modifiers);
+
+        return CompletableFuture.supplyAsync(() -> {
+            MenuItem[] items = new MenuItem[type == MenuType.CHEST ? rows * 9 : type.getLimit()];
+            contents.accept(items);
+            return type == MenuType.CHEST
+                    ? new MenuData(title, rows, modifiers, items)
+                    : new MenuData(title, type, modifiers, items);
+        }, executor);
+    }
+
+    private static void runOnMainThread(@NotNull Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+        Bukkit.getScheduler().runTask(PluginProvider.get(), task);
+    }
+
     private static void checkRows(int rows) {
         if (rows <= 0 || rows > 6) {
             throw new IllegalArgumentException(
@@ -9,9 +9,8 @@ import me.flame.menus.modifiers.Modifier;
 import org.bukkit.configuration.serialization.ConfigurationSerializable;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
+import java.io.*;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -37,6 +36,7 @@ public class MenuData implements Serializable, ConfigurationSerializable {
         this.pages = pages;
         this.type = MenuType.CHEST;
         this.modifiers = modifiers;
+        this.items = items;
     }
 
     public MenuData(String title, MenuType type, int pages, EnumSet<Modifier> modifiers, MenuItem[] items) {
@@ -45,6 +45,7 @@ public class MenuData implements Serializable, ConfigurationSerializable {
         this.pages = pages;
         this.type = type;
         this.modifiers = modifiers;
+        this.items = items;
     }
 
     public MenuData(TextHolder title, int rows, int pages, EnumSet<Modifier> modifiers, MenuItem[] items) {
@@ -53,6 +54,7 @@ public class MenuData implements Serializable, ConfigurationSerializable {
         this.pages = pages;
         this.type = MenuType.CHEST;
         this.modifiers = modifiers;
+        this.items = items;
     }
 
     public MenuData(TextHolder title, MenuType type, int pages, EnumSet<Modifier> modifiers, MenuItem[] items) {
@@ -61,6 +63,7 @@ public class MenuData implements Serializable, ConfigurationSerializable {
         this.pages = pages;
         this.type = type;
         this.modifiers = modifiers;
+        this.items = items;
     }
 
     public MenuData(String title, int rows, EnumSet<Modifier> modifiers, MenuItem[] items) {
@@ -79,25 +82,43 @@ public class MenuData implements Serializable, ConfigurationSerializable {
         this(title, type, 1, modifiers, items);
     }
 
-    private void readObject(java.io.ObjectInputStream s) throws IOException, ClassNotFoundException {
-        s.readFields();
-        this.title = (TextHolder) s.readObject();
-        this.rows = s.readInt();
-        this.pages = s.readInt();
-        this.type = (MenuType) s.readObject();
-        this.items = (MenuItem[]) s.readObject();
-        this.modifiers = (EnumSet<Modifier>) s.readObject();
+    // everything is written by the codec instead of default serialization, ItemStacks aren't Serializable
+    private static final ObjectStreamField[] serialPersistentFields = {};
+
+    /**
+     * Write this menu data in the compact binary format of {@link MenuDataCodec}.
+     * @param stream the stream to write to
+     * @throws IOException if the stream fails
+     */
+    public void encode(@NotNull OutputStream stream) throws IOException {
+        MenuDataCodec.encode(this, stream);
+    }
+
+    /**
+     * Read menu data written by {@link #encode(OutputStream)}.
+     * @param stream the stream to read from
+     * @return the menu data
+     * @throws IOException if the stream fails or doesn't hold menu data
+     */
+    @NotNull
+    public static MenuData decode(@NotNull InputStream stream) throws IOException {
+        return MenuDataCodec.decode(stream);
+    }
+
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        MenuData data = MenuDataCodec.decode(s);
+        this.title = data.title;
+        this.rows = data.rows;
+        this.pages = data.pages;
+        this.type = data.type;
+        this.items = data.items;
+        this.modifiers = data.modifiers;
     }
 
     private void writeObject(ObjectOutputStream s) throws IOException {
         s.defaultWriteObject();
-        s.writeObject(title);
-        s.writeInt(rows);
-        s.writeInt(pages);
-
-        s.writeObject(type);
-        s.writeObject(items);
-        s.writeObject(modifiers);
+        MenuDataCodec.encode(this, s);
     }
 
     @NotNull
@@ -148,7 +169,8 @@ public class MenuData implements Serializable, ConfigurationSerializable {
     @NotNull
     Menu intoMenu() {
         Menu menu = type != MenuType.CHEST ? new Menu(type, title, modifiers, true) : new Menu(rows, title, modifiers, true);
-        menu.setContents(items);
+        // menus made from the same data must not share their slots
+        if (items != null) menu.setContents(Arrays.copyOf(items, menu.size()));
         return menu;
     }
 
@@ -0,0 +1,388 @@
+package me.flame.menus.menu;
+
+import me.flame.menus.adventure.TextHolder;
+import me.flame.menus.components.nbt.ItemNbt;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.modifiers.Modifier;
+
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A compact, versioned binary format for {@link MenuData}.
+ * <p>
+ * Layout of version 1, every number being an unsigned varint unless noted otherwise:
+ * <pre>
+ *     magic (int), version
+ *     type, title: strings
+ *     rows, pages, modifier mask
+ *     prototype count, prototypes: item stacks with the menu item id stripped, each distinct stack written once
+ *     item count, items: the prototype of every distinct menu item
+ *     slot count, slots: delta from the previous slot, then the item
+ * </pre>
+ * Strings are interned as they're written: the first occurrence is written in full and every later one as a reference,
+ * so repeated lore lines, names and keys cost a varint. Item stacks are written as their {@link ItemStack#serialize() serialized}
+ * form with tagged values, the same data YAML would hold without the YAML.
+ * <p>
+ * Slots holding the same menu item decode to the same menu item again, click actions and states aren't part of the format.
+ * @since 2.0.0
+ */
+public final class MenuDataCodec {
+    private static final int MAGIC = 0x574D4443; // "WMDC"
+    private static final int VERSION = 1;
+
+    private static final String ID_KEY = "woody-menu", ALIAS_KEY = ConfigurationSerialization.SERIALIZED_TYPE_KEY;
+
+    // bounds for the counts and string lengths read, far above anything encode writes for a menu
+    private static final int MAX_COUNT = 1 << 16, MAX_STRING_LENGTH = 1 << 20;
+
+    private static final int NULL = 0, STRING = 1, INT = 2, LONG = 3, DOUBLE = 4, FLOAT = 5,
+            TRUE = 6, FALSE = 7, LIST = 8, MAP = 9, SERIALIZABLE = 10, SHORT = 11, BYTE = 12;
+
+    private MenuDataCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Write the menu data to the stream, the stream is flushed but not closed.
+     * @param menuData the menu data to write
+     * @param stream the stream to write to, buffering is up to the caller
+     * @throws IOException if the stream fails
+     */
+    public static void encode(@NotNull MenuData menuData, @NotNull OutputStream stream) throws IOException {
+        Encoder writer = new Encoder(stream);
+        writer.out.writeInt(MAGIC);
+        writer.writeVarInt(VERSION);
+
+        writer.writeString(menuData.getType().name());
+        writer.writeString(menuData.getTitle().toString());
+        writer.writeVarInt(menuData.getRows());
+        writer.writeVarInt(menuData.getPages());
+        writer.writeVarInt(Modifier.maskOf(menuData.getModifiers()));
+
+        MenuItem[] slots = menuData.getItems() == null ? new MenuItem[0] : menuData.getItems();
+
+        // distinct menu items, then distinct stacks among them
+        Map<MenuItem, Integer> itemIndexes = new IdentityHashMap<>();
+        List<Integer> itemPrototypes = new ArrayList<>();
+        Map<ItemStack, Integer> prototypeIndexes = new HashMap<>();
+        List<ItemStack> prototypes = new ArrayList<>();
+        int occupied = 0;
+        for (MenuItem item : slots) {
+            if (item == null) continue;
+            occupied++;
+            if (itemIndexes.containsKey(item)) continue;
+
+            ItemStack prototype = ItemNbt.removeTag(item.getItemStack().clone(), ID_KEY);
+            Integer prototypeIndex = prototypeIndexes.get(prototype);
+            if (prototypeIndex == null) {
+                prototypeIndex = prototypes.size();
+                prototypeIndexes.put(prototype, prototypeIndex);
+                prototypes.add(prototype);
+            }
+            itemIndexes.put(item, itemPrototypes.size());
+            itemPrototypes.add(prototypeIndex);
+        }
+
+        writer.writeVarInt(prototypes.size());
+        for (ItemStack prototype : prototypes) writer.writeValue(prototype);
+
+        writer.writeVarInt(itemPrototypes.size());
+        for (int prototypeIndex : itemPrototypes) writer.writeVarInt(prototypeIndex);
+
+        writer.writeVarInt(occupied);
+        int previous = -1;
+        for (int slot = 0; slot < slots.length; slot++) {
+            MenuItem item = slots[slot];
+            if (item == null) continue;
+            writer.writeVarInt(slot - previous - 1);
+            writer.writeVarInt(itemIndexes.get(item));
+            previous = slot;
+        }
+        writer.out.flush();
+    }
+
+    /**
+     * Read menu data written by {@link #encode(MenuData, OutputStream)}, reading exactly the bytes that were written.
+     * @param stream the stream to read from, buffering is up to the caller
+     * @return the menu data
+     * @throws IOException if the stream fails or doesn't hold menu data
+     */
+    @NotNull
+    public static MenuData decode(@NotNull InputStream stream) throws IOException {
+        Decoder reader = new Decoder(stream);
+        if (reader.in.readInt() != MAGIC) {
+            throw new StreamCorruptedException(
+                    "The stream doesn't hold menu data" +
+                    "\nFix: Only decode streams written by MenuDataCodec#encode."
+            );
+        }
+        int version = reader.readVarInt();
+        if (version != VERSION) {
+            throw new StreamCorruptedException(
+                    "Unsupported menu data version " + version + " (supported: " + VERSION + ")" +
+                    "\nFix: Decode the data with the version of WoodyMenus that encoded it."
+            );
+        }
+
+        String typeName = reader.readString();
+        MenuType type;
+        try {
+            type = MenuType.valueOf(typeName);
+        } catch (IllegalArgumentException exception) {
+            throw corrupted("Unknown menu type " + typeName);
+        }
+        TextHolder title = TextHolder.of(reader.readString());
+        int rows = reader.readVarInt(), pages = reader.readVarInt(), mask = reader.readVarInt();
+        if (type == MenuType.CHEST && (rows < 1 || rows > 6)) throw corrupted("Invalid amount of rows " + rows);
+        EnumSet<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
+        for (Modifier modifier : Modifier.values()) if ((mask & modifier.mask()) != 0) modifiers.add(modifier);
+
+        // every count is checked before anything is allocated for it, so corrupt data can't ask for a huge array
+        MenuItem[] slots = new MenuItem[type == MenuType.CHEST ? rows * 9 : type.getLimit()];
+
+        ItemStack[] prototypes = new ItemStack[reader.readCount(MAX_COUNT, "prototypes")];
+        for (int index = 0; index < prototypes.length; index++) {
+            Object prototype = reader.readValue();
+            if (!(prototype instanceof ItemStack)) throw corrupted("Prototype " + index + " isn't an item stack");
+            prototypes[index] = (ItemStack) prototype;
+        }
+
+        MenuItem[] items = new MenuItem[reader.readCount(MAX_COUNT, "items")];
+        for (int index = 0; index < items.length; index++) {
+            items[index] = MenuItem.of(prototypes[reader.readIndex(prototypes.length, "prototype")].clone());
+        }
+
+        int occupied = reader.readCount(MAX_COUNT, "occupied slots");
+        long slot = -1L;
+        for (int index = 0; index < occupied; index++) {
+            int gap = reader.readVarInt();
+            if (gap < 0) throw corrupted("Invalid slot gap " + gap);
+            slot += gap + 1L;
+            if (slot > MAX_COUNT) throw corrupted("Invalid slot " + slot);
+
+            MenuItem item = items[reader.readIndex(items.length, "item")];
+            // slots past the size of the menu type are dropped, as they couldn't be shown anyway
+            if (slot < slots.length) slots[(int) slot] = item;
+        }
+
+        return type == MenuType.CHEST
+                ? new MenuData(title, rows, pages, modifiers, slots)
+                : new MenuData(title, type, pages, modifiers, slots);
+    }
+
+    private static StreamCorruptedException corrupted(String problem) {
+        return new StreamCorruptedException(problem + "\nFix: The menu data is corrupted, encode it again.");
+    }
+
+    private static final class Encoder {
+        final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Encoder(OutputStream stream) {
+            this.out = stream instanceof DataOutputStream ? (DataOutputStream) stream : new DataOutputStream(stream);
+        }
+
+        void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0L) {
+                out.writeByte((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        // 0 followed by the string the first time, the string's index + 1 afterwards
+        void writeString(String value) throws IOException {
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(index + 1);
+                return;
+            }
+            strings.put(value, strings.size());
+            writeVarInt(0);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        void writeValue(Object value) throws IOException {
+            if (value == null) {
+                writeVarInt(NULL);
+            } else if (value instanceof String) {
+                writeVarInt(STRING);
+                writeString((String) value);
+            } else if (value instanceof Integer) {
+                writeVarInt(INT);
+                int number = (Integer) value;
+                writeVarInt((number << 1) ^ (number >> 31));
+            } else if (value instanceof Long) {
+                writeVarInt(LONG);
+                long number = (Long) value;
+                writeVarLong((number << 1) ^ (number >> 63));
+            } else if (value instanceof Double) {
+                writeVarInt(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Float) {
+                writeVarInt(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Short) {
+                writeVarInt(SHORT);
+                out.writeShort((Short) value);
+            } else if (value instanceof Byte) {
+                writeVarInt(BYTE);
+                out.writeByte((Byte) value);
+            } else if (value instanceof Boolean) {
+                writeVarInt((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Collection) {
+                Collection<?> list = (Collection<?>) value;
+                writeVarInt(LIST);
+                writeVarInt(list.size());
+                for (Object element : list) writeValue(element);
+            } else if (value instanceof Map) {
+                writeVarInt(MAP);
+                writeMap((Map<?, ?>) value);
+            } else if (value instanceof ConfigurationSerializable) {
+                ConfigurationSerializable serializable = (ConfigurationSerializable) value;
+                writeVarInt(SERIALIZABLE);
+                writeString(ConfigurationSerialization.getAlias(serializable.getClass()));
+                writeMap(serializable.serialize());
+            } else {
+                throw new NotSerializableException(
+                        "Cannot encode " + value.getClass().getName() + " (" + value + ")" +
+                        "\nFix: Item data must consist of primitives, strings, lists, maps and ConfigurationSerializables."
+                );
+            }
+        }
+
+        private void writeMap(Map<?, ?> map) throws IOException {
+            writeVarInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue());
+            }
+        }
+    }
+
+    private static final class Decoder {
+        final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        Decoder(InputStream stream) {
+            this.in = stream instanceof DataInputStream ? (DataInputStream) stream : new DataInputStream(stream);
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int current = in.readUnsignedByte();
+                value |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) return value;
+            }
+            throw new StreamCorruptedException("Malformed varint\nFix: The menu data is corrupted, encode it again.");
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0L;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int current = in.readUnsignedByte();
+                value |= (long) (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) return value;
+            }
+            throw new StreamCorruptedException("Malformed varlong\nFix: The menu data is corrupted, encode it again.");
+        }
+
+        // a length or count, at most max
+        int readCount(int max, String what) throws IOException {
+            int count = readVarInt();
+            if (count < 0 || count > max) throw corrupted("Invalid amount of " + what + " " + (count & 0xFFFFFFFFL));
+            return count;
+        }
+
+        // an index into a table of the given length
+        int readIndex(int length, String what) throws IOException {
+            int index = readVarInt();
+            if (index < 0 || index >= length) throw corrupted("Undefined " + what + " " + (index & 0xFFFFFFFFL));
+            return index;
+        }
+
+        String readString() throws IOException {
+            int reference = readVarInt();
+            if (reference != 0) {
+                if (reference < 0 || reference > strings.size()) {
+                    throw new StreamCorruptedException("String reference " + reference + " is undefined\nFix: The menu data is corrupted, encode it again.");
+                }
+                return strings.get(reference - 1);
+            }
+            byte[] bytes = new byte[readCount(MAX_STRING_LENGTH, "string bytes")];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        Object readValue() throws IOException {
+            int tag = readVarInt();
+            switch (tag) {
+                case NULL: return null;
+                case STRING: return readString();
+                case INT: {
+                    int number = readVarInt();
+                    return (number >>> 1) ^ -(number & 1);
+                }
+                case LONG: {
+                    long number = readVarLong();
+                    return (number >>> 1) ^ -(number & 1L);
+                }
+                case DOUBLE: return in.readDouble();
+                case FLOAT: return in.readFloat();
+                case SHORT: return in.readShort();
+                case BYTE: return in.readByte();
+                case TRUE: return Boolean.TRUE;
+                case FALSE: return Boolean.FALSE;
+                case LIST: {
+                    int size = readCount(MAX_COUNT, "list elements");
+                    List<Object> list = new ArrayList<>(Math.min(size, 16));
+                    for (int index = 0; index < size; index++) list.add(readValue());
+                    return list;
+                }
+                case MAP: return readMap(new LinkedHashMap<>());
+                case SERIALIZABLE: {
+                    String alias = readString();
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    map.put(ALIAS_KEY, alias);
+                    readMap(map);
+                    try {
+                        return ConfigurationSerialization.deserializeObject(map);
+                    } catch (RuntimeException exception) {
+                        StreamCorruptedException corrupted = corrupted("Cannot deserialize " + alias);
+                        corrupted.initCause(exception);
+                        throw corrupted;
+                    }
+                }
+                default:
+                    throw new StreamCorruptedException("Unknown value tag " + tag + "\nFix: The menu data is corrupted, encode it again.");
+            }
+        }
+
+        private Map<String, Object> readMap(Map<String, Object> map) throws IOException {
+            int size = readCount(MAX_COUNT, "map entries");
+            for (int index = 0; index < size; index++) map.put(readString(), readValue());
+            return map;
+        }
+    }
+}
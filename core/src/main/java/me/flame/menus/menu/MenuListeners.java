@@ -1,13 +1,16 @@
 package me.flame.menus.menu;
 
 import lombok.AllArgsConstructor;
-import me.flame.menus.components.nbt.ItemNbt;
+import me.flame.menus.components.metrics.MenuMetrics;
+import me.flame.menus.components.metrics.MenuMetricsProvider;
 import me.flame.menus.events.ClickActionEvent;
+import me.flame.menus.events.ClickActionEventPool;
 import me.flame.menus.events.BeforeAnimatingEvent;
 import me.flame.menus.events.PageChangeEvent;
 import me.flame.menus.items.MenuItem;
 
 import me.flame.menus.menu.animation.Animation;
+import me.flame.menus.modifiers.ClickPermissions;
 
 import me.flame.menus.util.ItemResponse;
 import org.bukkit.entity.Player;
@@ -25,76 +28,86 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.EnumSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @AllArgsConstructor
 public final class MenuListeners implements Listener {
-    private static final EnumSet<InventoryAction> TAKE = EnumSet.of(
-            InventoryAction.PICKUP_ONE,
-            InventoryAction.PICKUP_SOME,
-            InventoryAction.PICKUP_HALF,
-            InventoryAction.PICKUP_ALL,
-            InventoryAction.COLLECT_TO_CURSOR,
-            InventoryAction.HOTBAR_SWAP,
-            InventoryAction.MOVE_TO_OTHER_INVENTORY
-    );
-
-    private static final EnumSet<InventoryAction> PLACE = EnumSet.of(
-            InventoryAction.PLACE_ONE,
-            InventoryAction.PLACE_SOME,
-            InventoryAction.PLACE_ALL
-    );
-
-    private static final EnumSet<InventoryAction> SWAP = EnumSet.of(
-            InventoryAction.HOTBAR_SWAP,
-            InventoryAction.SWAP_WITH_CURSOR,
-            InventoryAction.HOTBAR_MOVE_AND_READD
-    );
-
-    private static final EnumSet<InventoryAction> DROP = EnumSet.of(
-            InventoryAction.DROP_ONE_SLOT,
-            InventoryAction.DROP_ALL_SLOT,
-            InventoryAction.DROP_ONE_CURSOR,
-            InventoryAction.DROP_ALL_CURSOR
-    );
-
     private final Plugin plugin;
 
-    private static final InventoryType PLAYER = InventoryType.PLAYER;
-    private static final InventoryAction OTHER_INV = InventoryAction.MOVE_TO_OTHER_INVENTORY;
-
     @EventHandler
     public void onInventoryClick(@NotNull InventoryClickEvent event) {
         InventoryView view = event.getView();
         Inventory inventory = view.getTopInventory();
         InventoryHolder holder = inventory.getHolder();
         if (!(holder instanceof Menu)) return;
-        int slot = event.getSlot(), raw = event.getRawSlot();
+
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        if (!metrics.isEnabled()) {
+            dispatchClick(event, view, inventory, (Menu) holder);
+            return;
+        }
+        long start = System.nanoTime();
+        dispatchClick(event, view, inventory, (Menu) holder);
+        metrics.recordClick(System.nanoTime() - start);
+    }
+
+    private static void dispatchClick(@NotNull InventoryClickEvent event, InventoryView view, Inventory inventory, Menu menu) {
+        int slot = event.getSlot();
 
         Inventory clickedInventory = event.getClickedInventory();
-        InventoryType.SlotType type = event.getSlotType();
-        ClickType click = event.getClick();
         InventoryAction action = event.getAction();
         ItemStack current = event.getCurrentItem();
-        ClickActionEvent clicked = new ClickActionEvent(view, type, raw, slot, click, current, action);
 
-        Menu menu = ((Menu) holder);
+        // the ClickActionEvent is only created once something is going to receive it
         if (clickedInventory == null) {
+            if (menu.outsideClickAction == Menu.NO_CLICK_ACTION) return;
+            ClickActionEvent clicked = wrap(event, view, menu, current);
             menu.outsideClickAction.accept(clicked);
+            complete(event, clicked, menu, false);
             return;
         }
 
-        if (menu.hasSlotActions()) {
-            ItemResponse response = menu.slotActions[slot];
-            if (response != null) response.apply(slot, clicked);
+        // slot actions and items belong to the slots of the menu, not the player's inventory below it
+        boolean inMenu = event.getRawSlot() < menu.size();
+        ItemResponse response = inMenu && menu.hasSlotActions() ? menu.slotActions[slot] : null;
+        Consumer<ClickActionEvent> sideAction = sideActionOf(view, menu, inventory, clickedInventory);
+        boolean denied = ClickPermissions.isDenied(menu.getModifierMask(), action, clickedInventory.getType(), inventory.getType());
+        Player player = (Player) event.getWhoClicked();
+        boolean hasItem = inMenu && current != null && menu.itemFor(player, slot) != null;
+
+        if (response == null && sideAction == null && menu.clickAction == Menu.NO_CLICK_ACTION && !hasItem) {
+            if (denied) event.setResult(Event.Result.DENY);
+            return;
         }
 
-        if (modifierDetected(menu, action, clickedInventory.getType(), inventory.getType()))
-            clicked.setResult(Event.Result.DENY);
-        executeActions(clicked, view, menu, inventory, clickedInventory);
-        executeItem(clicked, menu, current, (Player) event.getWhoClicked(), slot);
+        ClickActionEvent clicked = wrap(event, view, menu, current);
+        if (response != null) response.apply(slot, clicked);
+        if (denied) clicked.setResult(Event.Result.DENY);
+        if (sideAction != null) sideAction.accept(clicked);
+        if (menu.clickAction != Menu.NO_CLICK_ACTION) menu.clickAction.accept(clicked);
+
+        boolean escaped = hasItem && executeItem(clicked, menu, current, player, slot);
+        complete(event, clicked, menu, escaped);
+    }
+
+    @NotNull
+    private static ClickActionEvent wrap(@NotNull InventoryClickEvent event, InventoryView view, @NotNull Menu menu, ItemStack current) {
+        InventoryType.SlotType type = event.getSlotType();
+        int slot = event.getSlot(), raw = event.getRawSlot();
+        ClickType click = event.getClick();
+        InventoryAction action = event.getAction();
+        return menu.pooledClickEvents
+                ? ClickActionEventPool.acquire(view, type, raw, slot, click, current, action)
+                : new ClickActionEvent(view, type, raw, slot, click, current, action);
+    }
+
+    private static void complete(@NotNull InventoryClickEvent event, @NotNull ClickActionEvent clicked, @NotNull Menu menu, boolean escaped) {
+        Event.Result result = clicked.getResult();
+        if (result != Event.Result.DEFAULT) event.setResult(result);
+        if (menu.pooledClickEvents && !escaped) ClickActionEventPool.release(clicked);
     }
 
     @EventHandler
@@ -110,7 +123,8 @@ public final class MenuListeners implements Listener {
             Menu.SCHEDULER.runTaskLater(plugin, () -> menu.open(event.getPlayer()), 1);
             return;
         }
-        if (menu.hasAnimationsStarted && inventory.getViewers().isEmpty()) {
+        menu.closed(event.getPlayer());
+        if (menu.hasAnimationsStarted && !menu.hasViewers()) {
             menu.animations.forEach(Animation::stop);
             menu.hasAnimationsStarted = false;
         }
@@ -153,60 +167,43 @@ public final class MenuListeners implements Listener {
         }
     }
 
-    private static boolean isTakeItemEvent(InventoryAction action, InventoryType ciType, InventoryType type) {
-        if (ciType == PLAYER || type == PLAYER) return false;
-        return action == OTHER_INV || TAKE.contains(action);
-    }
-
-    private static boolean isPlaceItemEvent(InventoryAction action, InventoryType ciType, InventoryType type) {
-        if (action == OTHER_INV && ciType == PLAYER && type != ciType) return true;
-        return (ciType != PLAYER && type != PLAYER) || PLACE.contains(action);
-    }
-
-
-    private static boolean isSwapItemEvent(InventoryAction action, InventoryType ciType, InventoryType type) {
-        return (ciType != PLAYER && type != PLAYER) && SWAP.contains(action);
-    }
-
-    private static boolean isDropItemEvent(InventoryAction action, InventoryType type) {
-        return (type != PLAYER) && DROP.contains(action);
-    }
-
-    private static boolean isOtherEvent(InventoryAction action, InventoryType type) {
-        return (action == InventoryAction.CLONE_STACK || action == InventoryAction.UNKNOWN) &&
-               (type != PLAYER);
-    }
-
     private static boolean isDraggingOnGui(int size, @NotNull Iterable<Integer> rawSlots) {
         for (int slot : rawSlots) if (slot < size) return true;
         return false;
     }
 
-    private static void executeActions(ClickActionEvent event,
-                                       InventoryView view,
-                                       Menu menu,
-                                       @NotNull Inventory inventory,
-                                       Inventory clickedInventory) {
+    @Nullable
+    private static Consumer<ClickActionEvent> sideActionOf(InventoryView view, Menu menu, @NotNull Inventory inventory, Inventory clickedInventory) {
+        Consumer<ClickActionEvent> action = null;
         if (inventory.equals(clickedInventory)) {
-            menu.topClickAction.accept(event);
+            action = menu.topClickAction;
         } else if (view.getBottomInventory().equals(clickedInventory)) {
-            menu.bottomClickAction.accept(event);
+            action = menu.bottomClickAction;
         }
-        menu.clickAction.accept(event);
+        return action == Menu.NO_CLICK_ACTION ? null : action;
     }
 
-    private static void executeItem(ClickActionEvent actionEvent, Menu menu, ItemStack it, Player player, int slot) {
-        MenuItem menuItem;
-        if (it == null || (menuItem = menu.getItem(slot)) == null) return;
+    /**
+     * @return true if the event may still be used once this returns, so it can't be recycled
+     */
+    private static boolean executeItem(ClickActionEvent actionEvent, Menu menu, ItemStack it, Player player, int slot) {
+        MenuItem menuItem = menu.itemFor(player, slot);
+        if (menuItem == null || !menuItem.matches(it)) return false;
 
-        final String nbt = ItemNbt.getString(it, "woody-menu");
-        if (nbt == null || !nbt.equals(menuItem.getUniqueId().toString())) return;
+        if (menuItem.isOnCooldown(player)) return false;
 
-        if (menuItem.isOnCooldown(player)) return;
-        CompletableFuture<ActionResponse> response = menuItem.click(slot, actionEvent);
-        response.thenAccept(e -> handleRetry(slot, menuItem, actionEvent, e));
+        // async clicks outlive this listener, they get their own copy of the event
+        ClickActionEvent event = menuItem.isAsync() ? actionEvent.snapshot() : actionEvent;
+        CompletableFuture<ActionResponse> response = menuItem.click(slot, event);
+        response.thenAccept(e -> handleRetry(slot, menuItem, event, e));
 
         if (menu instanceof PaginatedMenu) handlePaginatedMenu((PaginatedMenu) menu, player, slot);
+        // a retry clicks the item again with the same event, and that click may finish after this listener returns
+        return event == actionEvent && (!response.isDone() || isRetry(response));
+    }
+
+    private static boolean isRetry(@NotNull CompletableFuture<ActionResponse> response) {
+        return !response.isCompletedExceptionally() && response.join().isRetry();
     }
 
     @SuppressWarnings("UnusedReturnValue")
@@ -235,15 +232,4 @@ public final class MenuListeners implements Listener {
         }
         return CompletableFuture.completedFuture(response);
     }
-
-    private static boolean modifierDetected(@NotNull IMenu menu, InventoryAction action, InventoryType ciType, InventoryType invType) {
-        if (menu.allModifiersAdded()) return true;
-
-        boolean irremovable;
-        return ((!menu.areItemsPlaceable() && isPlaceItemEvent(action, ciType, invType)) ||
-                ((irremovable = !menu.areItemsRemovable()) && isTakeItemEvent(action, ciType, invType)) ||
-                (!menu.areItemsSwappable() && isSwapItemEvent(action, ciType, invType)) ||
-                (irremovable && isDropItemEvent(action, invType)) ||
-                (!menu.areItemsCloneable() && isOtherEvent(action, invType)));
-    }
 }
@@ -0,0 +1,445 @@
+package me.flame.menus.menu;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Persists many {@link MenuData}s by key in one append-only file, read through a memory mapping.
+ * <p>
+ * Every save appends a record encoded with {@link MenuDataCodec}, an index of where the latest record of every key lives
+ * is kept beside the file. Opening the repository only reads that index, a menu is decoded the first time it's loaded;
+ * so startup costs as much as the index, not as much as every menu.
+ * <p>
+ * Overwritten and deleted records stay in the file until {@link #compact()} rewrites it with only the live records.
+ * <pre>{@code
+ *     MenuRepository shops = MenuRepository.open(getDataFolder().toPath().resolve("shops.menus"));
+ *     shops.save(player.getUniqueId().toString(), menu.getMenuData());
+ *     ...
+ *     Menu shop = shops.menu(player.getUniqueId().toString());
+ *     ...
+ *     if (shops.getDeadRatio() > 0.5) shops.compactAsync(executor);
+ * }</pre>
+ * All methods are synchronized, compacting blocks saves and loads until it's done.
+ * The data file is limited to 2GB as it's mapped as a whole.
+ * @since 2.0.0
+ */
+@SuppressWarnings("unused")
+public final class MenuRepository implements Closeable {
+    private static final int MAGIC = 0x574D5250; // "WMRP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte LIVE = 0, DELETED = 1;
+
+    // record: int length of the rest, byte kind, short key length, key, encoded menu data
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES + Byte.BYTES + Short.BYTES;
+
+    private final Path file, indexFile;
+
+    private FileChannel channel;
+
+    @Nullable
+    private MappedByteBuffer mapping;
+
+    private final Map<String, Entry> index = new HashMap<>();
+
+    private int decodedCacheSize = 256;
+
+    // the most recently loaded menus, least recently used first, so only a bounded amount of menus stays decoded
+    private final Map<String, MenuData> decoded = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MenuData> eldest) {
+            return size() > decodedCacheSize;
+        }
+    };
+
+    private long end, deadBytes;
+
+    private boolean indexDirty;
+
+    private MenuRepository(@NotNull Path file) {
+        this.file = file;
+        this.indexFile = file.resolveSibling(file.getFileName() + ".idx");
+    }
+
+    /**
+     * Open the repository stored in the given file, creating it if it doesn't exist.
+     * @param file the data file, the index is stored next to it with an {@code .idx} suffix
+     * @return the repository
+     * @throws IOException if the files can't be read or aren't a repository
+     */
+    @NotNull
+    @Contract("_ -> new")
+    public static MenuRepository open(@NotNull Path file) throws IOException {
+        MenuRepository repository = new MenuRepository(file);
+        repository.load();
+        return repository;
+    }
+
+    private void load() throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0L) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header, 0L);
+            this.end = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0L);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new StreamCorruptedException(
+                    "The file " + file + " isn't a menu repository of version " + VERSION +
+                    "\nFix: Open the repository with the version of WoodyMenus that created it, or pick another file."
+            );
+        }
+
+        long indexed = readIndex();
+        scan(indexed, channel.size());
+    }
+
+    /**
+     * Save menu data under a key, replacing whatever was saved under it.
+     * @param key the key
+     * @param data the menu data
+     * @throws IOException if the record can't be written
+     */
+    public synchronized void save(@NotNull String key, @NotNull MenuData data) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(512);
+        MenuDataCodec.encode(data, payload);
+        append(key, LIVE, payload.toByteArray());
+        decoded.put(key, data);
+    }
+
+    /**
+     * Delete the menu data saved under a key.
+     * @param key the key
+     * @return true if anything was saved under the key
+     * @throws IOException if the deletion can't be written
+     */
+    public synchronized boolean delete(@NotNull String key) throws IOException {
+        if (!index.containsKey(key)) return false;
+        append(key, DELETED, new byte[0]);
+        decoded.remove(key);
+        return true;
+    }
+
+    /**
+     * Load the menu data saved under a key, decoding it unless it's one of the most recently loaded menus.
+     * @param key the key
+     * @return the menu data, or null if nothing is saved under the key
+     * @throws IOException if the record can't be read
+     */
+    @Nullable
+    public synchronized MenuData load(@NotNull String key) throws IOException {
+        MenuData data = decoded.get(key);
+        if (data != null) return data;
+
+        Entry entry = index.get(key);
+        if (entry == null) return null;
+
+        ByteBuffer buffer = map(entry.payloadOffset + entry.payloadLength).duplicate();
+        buffer.position((int) entry.payloadOffset).limit((int) (entry.payloadOffset + entry.payloadLength));
+        data = MenuDataCodec.decode(new BufferInputStream(buffer));
+        decoded.put(key, data);
+        return data;
+    }
+
+    /**
+     * Create a menu from the menu data saved under a key.
+     * @param key the key
+     * @return a new menu, or null if nothing is saved under the key
+     * @throws IOException if the record can't be read
+     */
+    @Nullable
+    public Menu menu(@NotNull String key) throws IOException {
+        MenuData data = load(key);
+        return data == null ? null : Menu.create(data);
+    }
+
+    public synchronized int getDecodedCacheSize() {
+        return decodedCacheSize;
+    }
+
+    /**
+     * Set how many decoded menus are kept, the least recently loaded ones are dropped first and decoded again when needed.
+     * @param decodedCacheSize the amount of menus to keep, 0 to decode on every load
+     */
+    public synchronized void setDecodedCacheSize(int decodedCacheSize) {
+        this.decodedCacheSize = Math.max(0, decodedCacheSize);
+        if (decoded.size() <= this.decodedCacheSize) return;
+
+        Iterator<MenuData> iterator = decoded.values().iterator();
+        for (int excess = decoded.size() - this.decodedCacheSize; excess > 0; excess--) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    public synchronized boolean contains(@NotNull String key) {
+        return index.containsKey(key);
+    }
+
+    @NotNull
+    public synchronized Set<String> keys() {
+        return new HashSet<>(index.keySet());
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Get the share of the data file taken by overwritten and deleted records.
+     * @return a value between 0 and 1
+     */
+    public synchronized double getDeadRatio() {
+        long used = end - HEADER_SIZE;
+        return used == 0L ? 0.0 : (double) deadBytes / used;
+    }
+
+    /**
+     * Rewrite the data file with only the live records, then swap it in.
+     * @throws IOException if the new file can't be written
+     */
+    public synchronized void compact() throws IOException {
+        if (deadBytes == 0L) return;
+
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Map<String, Entry> moved = new HashMap<>(index.size() * 2);
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            target.write(header);
+
+            long position = HEADER_SIZE;
+            for (Map.Entry<String, Entry> keyed : index.entrySet()) {
+                Entry entry = keyed.getValue();
+                long recordLength = entry.payloadOffset + entry.payloadLength - entry.recordOffset;
+                ByteBuffer record = map(entry.recordOffset + recordLength).duplicate();
+                record.position((int) entry.recordOffset).limit((int) (entry.recordOffset + recordLength));
+                while (record.hasRemaining()) target.write(record);
+
+                moved.put(keyed.getKey(), new Entry(position, position + (entry.payloadOffset - entry.recordOffset), entry.payloadLength));
+                position += recordLength;
+            }
+            target.force(true);
+        }
+
+        channel.close();
+        this.mapping = null;
+        try {
+            // without an index the next open scans the records, so a crash between these steps loses nothing
+            Files.deleteIfExists(indexFile);
+            this.indexDirty = true;
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            // the original file if the move failed, which the index still describes, so the repository stays usable
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        index.clear();
+        index.putAll(moved);
+        this.end = channel.size();
+        this.deadBytes = 0L;
+        this.indexDirty = true;
+        writeIndex();
+    }
+
+    /**
+     * Compact the data file on the given executor.
+     * @param executor the executor to compact on
+     * @return a future completed once the file is compacted
+     * @see #compact()
+     */
+    @NotNull
+    public CompletableFuture<Void> compactAsync(@NotNull Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                compact();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }, executor);
+    }
+
+    /**
+     * Force the records to disk and write the index, so the next open doesn't have to scan for records.
+     * @throws IOException if the files can't be written
+     */
+    public synchronized void flush() throws IOException {
+        channel.force(false);
+        writeIndex();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) return;
+        flush();
+        channel.close();
+        this.mapping = null;
+        decoded.clear();
+    }
+
+    private void append(String key, byte kind, byte[] payload) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "Key is too long (" + keyBytes.length + " bytes)" +
+                    "\nFix: Keys must be at most " + Short.MAX_VALUE + " bytes long."
+            );
+        }
+
+        int recordLength = RECORD_HEADER_SIZE + keyBytes.length + payload.length;
+        if (end + recordLength > Integer.MAX_VALUE) {
+            throw new IOException(
+                    "The menu repository " + file + " is full" +
+                    "\nFix: Compact the repository or split the menus over multiple repositories."
+            );
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(recordLength)
+                .putInt(recordLength - Integer.BYTES)
+                .put(kind)
+                .putShort((short) keyBytes.length)
+                .put(keyBytes)
+                .put(payload);
+        record.flip();
+        long position = end;
+        while (record.hasRemaining()) position += channel.write(record, position);
+
+        Entry entry = new Entry(end, end + RECORD_HEADER_SIZE + keyBytes.length, payload.length);
+        this.end = position;
+        apply(key, kind, entry, recordLength);
+    }
+
+    private void apply(String key, byte kind, Entry entry, long recordLength) {
+        Entry previous = kind == LIVE ? index.put(key, entry) : index.remove(key);
+        if (previous != null) deadBytes += previous.payloadOffset + previous.payloadLength - previous.recordOffset;
+        if (kind == DELETED) deadBytes += recordLength;
+        this.indexDirty = true;
+    }
+
+    // reads the records the index doesn't cover yet, only their headers
+    private void scan(long from, long to) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = from;
+        while (position + RECORD_HEADER_SIZE <= to) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            int length = header.getInt();
+            byte kind = header.get();
+            int keyLength = header.getShort();
+            long recordEnd = position + Integer.BYTES + length;
+            if (keyLength < 0 || length < RECORD_HEADER_SIZE - Integer.BYTES + keyLength || recordEnd > to) break; // torn write at the end
+
+            ByteBuffer keyBytes = ByteBuffer.allocate(keyLength);
+            channel.read(keyBytes, position + RECORD_HEADER_SIZE);
+            String key = new String(keyBytes.array(), StandardCharsets.UTF_8);
+
+            long payloadOffset = position + RECORD_HEADER_SIZE + keyLength;
+            apply(key, kind, new Entry(position, payloadOffset, (int) (recordEnd - payloadOffset)), recordEnd - position);
+            position = recordEnd;
+        }
+        this.end = position;
+        if (position < channel.size()) channel.truncate(position);
+    }
+
+    private MappedByteBuffer map(long until) throws IOException {
+        if (mapping == null || mapping.capacity() < until) mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0L, end);
+        return mapping;
+    }
+
+    // returns the end of the data file the index covers, or the header if there's no usable index
+    private long readIndex() throws IOException {
+        if (!Files.exists(indexFile)) return HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return HEADER_SIZE;
+            long covered = in.readLong(), dead = in.readLong();
+            if (covered > channel.size()) return HEADER_SIZE; // the data file was replaced or truncated
+
+            int count = in.readInt();
+            Map<String, Entry> entries = new HashMap<>(count * 2);
+            for (int entry = 0; entry < count; entry++) {
+                entries.put(in.readUTF(), new Entry(in.readLong(), in.readLong(), in.readInt()));
+            }
+            index.putAll(entries);
+            this.deadBytes = dead;
+            return covered;
+        } catch (EOFException exception) {
+            index.clear();
+            this.deadBytes = 0L;
+            return HEADER_SIZE;
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        if (!indexDirty) return;
+        Path temporary = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(end);
+            out.writeLong(deadBytes);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Entry> keyed : index.entrySet()) {
+                Entry entry = keyed.getValue();
+                out.writeUTF(keyed.getKey());
+                out.writeLong(entry.recordOffset);
+                out.writeLong(entry.payloadOffset);
+                out.writeInt(entry.payloadLength);
+            }
+        }
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.indexDirty = false;
+    }
+
+    private static final class Entry {
+        final long recordOffset, payloadOffset;
+        final int payloadLength;
+
+        Entry(long recordOffset, long payloadOffset, int payloadLength) {
+            this.recordOffset = recordOffset;
+            this.payloadOffset = payloadOffset;
+            this.payloadLength = payloadLength;
+        }
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte @NotNull [] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) return -1;
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.google.common.collect.ImmutableSet;
 import lombok.Getter;
 import lombok.Setter;
 import me.flame.menus.adventure.TextHolder;
+import me.flame.menus.components.metrics.MenuMetrics;
+import me.flame.menus.components.metrics.MenuMetricsProvider;
 import me.flame.menus.events.PageChangeEvent;
 import me.flame.menus.items.MenuItem;
 import me.flame.menus.menu.fillers.*;
@@ -18,12 +20,21 @@ import org.jetbrains.annotations.*;
 
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 /**
  * Menu that allows you to have multiple pages
  * <p>1.1.0: PaginatedMenu straight out of Triumph-GUIS</p>
  * <p>1.4.0: PaginatedMenu rewritten as List<Page></p>
  * <p>2.0.0: PaginatedMenu rewritten as List<ItemData> instead to improve DRY and reduce it by about 250+ lines</p>
+ * <p>
+ * A PaginatedMenu created with a page source doesn't hold its pages, they're built by the source when they're opened
+ * and only the most recently used ones are kept, see {@link #setPageCacheSize(int)}.
+ * <p>
+ * Items shared by every page (controls, borders, {@link PageDecoration}) live in a single decoration layer
+ * drawn in the slots a page leaves empty, so pages only hold their own items.
  * @since 2.0.0
  * @author FlameyosFlow
  */
@@ -40,6 +51,20 @@ public final class PaginatedMenu extends Menu implements Pagination {
 
     private final MenuFiller pageDecorator = PageDecoration.create(this);
 
+    @Nullable
+    private final IntFunction<MenuItem[]> pageSource;
+
+    private final int pageCount;
+
+    @Getter
+    private int pageCacheSize = 4;
+
+    // pages built by the page source, least recently used first, the displayed page and edited pages are never dropped
+    private final Map<Integer, ItemData> cachedPages = new LinkedHashMap<>(8, 0.75f, true);
+
+    // the decoration layer shared by every page, replaced as a whole on every change and never mutated once published
+    private MenuItem[] overlay;
+
     public <T extends MenuFiller> T getPageDecorator(Class<T> pageClass) {
         return pageClass.cast(pageDecorator);
     }
@@ -49,6 +74,13 @@ public final class PaginatedMenu extends Menu implements Pagination {
     }
 
     public void addPage() {
+        if (pageSource != null) {
+            throw new IllegalStateException(
+                "Attempted to add a page to a PaginatedMenu built from a page source." +
+                "\nPage count: " + pageCount +
+                "\nFix: The page count of a page source is fixed, create the menu with the amount of pages the source has."
+            );
+        }
         pages.add(new ItemData(this));
     }
 
@@ -57,67 +89,240 @@ public final class PaginatedMenu extends Menu implements Pagination {
      *
      * @param pageRows The page size.
      */
-    private PaginatedMenu(final int pageRows, final int pageCount, TextHolder title, EnumSet<Modifier> modifiers) {
+    private PaginatedMenu(final int pageRows, final int pageCount, TextHolder title, EnumSet<Modifier> modifiers, @Nullable IntFunction<MenuItem[]> pageSource) {
         super(pageRows, title, modifiers, true);
-        this.pages = new ArrayList<>(pageCount);
-
-        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++)
-            pages.add(new ItemData(this));
-        this.data = pages.get(pageNumber);
+        this.pageSource = pageSource;
+        this.pageCount = pageCount;
+        this.pages = new ArrayList<>(pageSource == null ? pageCount : 0);
+        createPages();
     }
 
     /**
      * Main constructor to provide a way to create PaginatedMenu
      */
-    private PaginatedMenu(MenuType type, final int pageCount, TextHolder title, EnumSet<Modifier> modifiers) {
+    private PaginatedMenu(MenuType type, final int pageCount, TextHolder title, EnumSet<Modifier> modifiers, @Nullable IntFunction<MenuItem[]> pageSource) {
         super(type, title, modifiers, true);
-        this.pages = new ArrayList<>(pageCount);
+        this.pageSource = pageSource;
+        this.pageCount = pageCount;
+        this.pages = new ArrayList<>(pageSource == null ? pageCount : 0);
+        createPages();
+    }
+
+    private void createPages() {
+        if (pageSource == null) {
+            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++)
+                pages.add(new ItemData(this));
+        }
+        this.data = pageAt(pageNumber);
+    }
+
+    /**
+     * Get the page at the index, building it from the page source if this menu has one and it isn't cached.
+     */
+    @NotNull
+    private ItemData pageAt(int index) {
+        if (pageSource == null) return pages.get(index);
+
+        ItemData page = cachedPages.get(index);
+        if (page != null) return page;
+
+        MenuItem[] items = pageSource.apply(index);
+        page = items == null ? new ItemData(this) : new ItemData(this, items);
+        cachedPages.put(index, page);
+        evictPages(page);
+        return page;
+    }
+
+    /**
+     * Drop the least recently used pages over the cache size, keeping the displayed page, edited pages and the kept page.
+     * An edited page would lose its changes if it were rebuilt from the page source, so it stays cached for good.
+     */
+    private void evictPages(ItemData kept) {
+        int excess = cachedPages.size() - pageCacheSize;
+        Iterator<ItemData> iterator = cachedPages.values().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            ItemData page = iterator.next();
+            if (page == kept || page == data || page.edited) continue;
+            iterator.remove();
+            excess--;
+        }
+    }
+
+    private void forEachPage(Consumer<ItemData> action) {
+        if (pageSource == null) {
+            pages.forEach(action);
+            return;
+        }
+        cachedPages.values().forEach(action);
+        // the displayed page is never evicted, but removals and resizes must reach it whatever the cache holds
+        if (data != null && !cachedPages.containsValue(data)) action.accept(data);
+    }
 
-        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++)
-            pages.add(new ItemData(this));
-        this.data = pages.get(pageNumber);
+    /**
+     * Check if the pages of this menu are built on demand by a page source.
+     * @return true if this menu has a page source
+     */
+    public boolean hasPageSource() {
+        return pageSource != null;
+    }
+
+    /**
+     * Set how many pages built by the page source are kept, the least recently used ones are dropped first.
+     * <p>
+     * The displayed page and pages that were edited (e.g. with {@link #setItem(int, MenuItem)}) are never dropped,
+     * so their changes aren't lost by rebuilding them from the page source; they may take the cache over this size.
+     * @param pageCacheSize the amount of pages to keep, at least 1
+     */
+    public void setPageCacheSize(int pageCacheSize) {
+        this.pageCacheSize = Math.max(1, pageCacheSize);
+    }
+
+    /**
+     * Get the pages of this menu, or only the currently cached pages if this menu has a page source.
+     * @return a copy of the pages
+     */
+    public ImmutableList<ItemData> pages() {
+        return ImmutableList.copyOf(pageSource == null ? pages : cachedPages.values());
     }
 
-    public ImmutableList<ItemData> pages() { return ImmutableList.copyOf(pages); }
+    @Override
+    MenuItem @Nullable [] overlay() {
+        return overlay;
+    }
+
+    /**
+     * Set the decoration of every slot accepted by the filter.
+     * <p>
+     * Decorations are shown on every page in the slots the page leaves empty, and items added to a page skip them.
+     * The whole change is a single write to the decoration layer, no matter how many pages exist.
+     * @param slots the filter of the slots to decorate
+     * @param item the decoration, or null to remove the decoration of those slots
+     */
+    public void decorate(@NotNull IntPredicate slots, @Nullable MenuItem item) {
+        if (overlay == null && item == null) return;
+
+        MenuItem[] layer = overlay == null ? new MenuItem[size] : overlay.clone();
+        boolean modified = false;
+        for (int slot = 0; slot < layer.length; slot++) {
+            if (layer[slot] == item || !slots.test(slot)) continue;
+            layer[slot] = item;
+            data.markDirty(slot);
+            modified = true;
+        }
+
+        if (!modified) return;
+        this.overlay = layer;
+        this.changed = true;
+    }
+
+    /**
+     * Set the decoration of a slot on every page.
+     * @param slot the slot
+     * @param item the decoration, or null to remove it
+     * @see #decorate(IntPredicate, MenuItem)
+     */
+    public void setDecoration(int slot, @Nullable MenuItem item) {
+        decorate(decorated -> decorated == slot, item);
+    }
+
+    /**
+     * Get the decoration of a slot.
+     * @param slot the slot
+     * @return the decoration, or null if the slot isn't decorated
+     */
+    public @Nullable MenuItem getDecoration(int slot) {
+        return overlay == null ? null : overlay[slot];
+    }
+
+    /**
+     * Get the decoration layer shared by every page.
+     * @return a copy of the decorations, empty slots being null
+     */
+    public MenuItem @NotNull [] getDecorations() {
+        return overlay == null ? new MenuItem[size] : overlay.clone();
+    }
+
+    public void clearDecorations() {
+        decorate(slot -> true, null);
+    }
+
+    private void removeDecorations(Predicate<MenuItem> filter) {
+        if (overlay == null) return;
+        decorate(slot -> {
+            MenuItem item = overlay[slot];
+            return item != null && filter.test(item);
+        }, null);
+    }
 
     @NotNull
     public static PaginatedMenu create(String title, int rows, int pages) {
-        return new PaginatedMenu(rows, pages, TextHolder.of(title), EnumSet.noneOf(Modifier.class));
+        return new PaginatedMenu(rows, pages, TextHolder.of(title), EnumSet.noneOf(Modifier.class), null);
     }
 
     @NotNull
     public static PaginatedMenu create(String title, MenuType type, int pages) {
-        return new PaginatedMenu(type, pages, TextHolder.of(title), EnumSet.noneOf(Modifier.class));
+        return new PaginatedMenu(type, pages, TextHolder.of(title), EnumSet.noneOf(Modifier.class), null);
     }
 
     @NotNull
     public static PaginatedMenu create(String title, int rows, int pages, EnumSet<Modifier> modifiers) {
-        return new PaginatedMenu(rows, pages, TextHolder.of(title), modifiers);
+        return new PaginatedMenu(rows, pages, TextHolder.of(title), modifiers, null);
     }
 
     @NotNull
     public static PaginatedMenu create(String title, MenuType type, int pages, EnumSet<Modifier> modifiers) {
-        return new PaginatedMenu(type, pages, TextHolder.of(title), modifiers);
+        return new PaginatedMenu(type, pages, TextHolder.of(title), modifiers, null);
     }
 
     @NotNull
     public static PaginatedMenu create(TextHolder title, int rows, int pages) {
-        return new PaginatedMenu(rows, pages, title, EnumSet.noneOf(Modifier.class));
+        return new PaginatedMenu(rows, pages, title, EnumSet.noneOf(Modifier.class), null);
     }
 
     @NotNull
     public static PaginatedMenu create(TextHolder title, MenuType type, int pages) {
-        return new PaginatedMenu(type, pages, title, EnumSet.noneOf(Modifier.class));
+        return new PaginatedMenu(type, pages, title, EnumSet.noneOf(Modifier.class), null);
     }
 
     @NotNull
     public static PaginatedMenu create(TextHolder title, int rows, int pages, EnumSet<Modifier> modifiers) {
-        return new PaginatedMenu(rows, pages, title, modifiers);
+        return new PaginatedMenu(rows, pages, title, modifiers, null);
     }
 
     @NotNull
     public static PaginatedMenu create(TextHolder title, MenuType type, int pages, EnumSet<Modifier> modifiers) {
-        return new PaginatedMenu(type, pages, title, modifiers);
+        return new PaginatedMenu(type, pages, title, modifiers, null);
+    }
+
+    /**
+     * Create a PaginatedMenu whose pages are built on demand by the page source.
+     * <p>
+     * The source receives the page index and returns the items of that page (or null for an empty page),
+     * it is called again if a page was dropped from the cache, so it should be cheap and return fresh arrays.
+     * @param title the title of the menu
+     * @param rows the rows of every page
+     * @param pages the amount of pages the source can build
+     * @param pageSource the function building a page from its index
+     * @return the menu
+     */
+    @NotNull
+    public static PaginatedMenu create(String title, int rows, int pages, @NotNull IntFunction<MenuItem[]> pageSource) {
+        return new PaginatedMenu(rows, pages, TextHolder.of(title), EnumSet.noneOf(Modifier.class), pageSource);
+    }
+
+    @NotNull
+    public static PaginatedMenu create(TextHolder title, int rows, int pages, @NotNull IntFunction<MenuItem[]> pageSource) {
+        return new PaginatedMenu(rows, pages, title, EnumSet.noneOf(Modifier.class), pageSource);
+    }
+
+    @NotNull
+    public static PaginatedMenu create(TextHolder title, int rows, int pages, EnumSet<Modifier> modifiers, @NotNull IntFunction<MenuItem[]> pageSource) {
+        return new PaginatedMenu(rows, pages, title, modifiers, pageSource);
+    }
+
+    @NotNull
+    public static PaginatedMenu create(TextHolder title, MenuType type, int pages, EnumSet<Modifier> modifiers, @NotNull IntFunction<MenuItem[]> pageSource) {
+        return new PaginatedMenu(type, pages, title, modifiers, pageSource);
     }
 
     public static @NotNull PaginatedMenu create(MenuData data) {
@@ -133,7 +338,8 @@ public final class PaginatedMenu extends Menu implements Pagination {
 
     public void recreateInventory() {
         super.recreateInventory();
-        pages.forEach((data) -> {
+        if (overlay != null) overlay = Arrays.copyOf(overlay, size);
+        forEachPage((data) -> {
             if (data != this.data) data.recreateInventory();
         });
     }
@@ -142,7 +348,8 @@ public final class PaginatedMenu extends Menu implements Pagination {
     public void setContents(MenuItem... items) {
         ItemData itemData = new ItemData(this);
         itemData.contents(items);
-        pages.set(pageNumber, itemData);
+        if (pageSource == null) pages.set(pageNumber, itemData);
+        else cachedPages.put(pageNumber, itemData);
         data = itemData;
     }
 
@@ -157,7 +364,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
     @ApiStatus.ScheduledForRemoval(inVersion = "2.1.0")
     public void setNextPageItem(int slot, @NotNull MenuItem item) {
         this.nextItemSlot = slot;
-        pages.forEach(page -> page.setItem(slot, item));
+        setDecoration(slot, item);
     }
 
     /**
@@ -172,7 +379,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
     public void setNextPageItem(@NotNull Slot pos, @NotNull MenuItem item) {
         int slot = pos.slot;
         this.nextItemSlot = slot;
-        pages.forEach(page -> page.setItem(slot, item));
+        setDecoration(slot, item);
     }
 
     /**
@@ -186,7 +393,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
     @ApiStatus.ScheduledForRemoval(inVersion = "2.1.0")
     public void setPreviousPageItem(int slot, @NotNull MenuItem item) {
         this.previousItemSlot = slot;
-        pages.forEach(page -> page.setItem(slot, item));
+        setDecoration(slot, item);
     }
 
     /**
@@ -201,7 +408,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
     public void setPreviousPageItem(@NotNull Slot pos, @NotNull MenuItem item) {
         int slot = pos.slot;
         this.previousItemSlot = slot;
-        pages.forEach(page -> page.setItem(slot, item));
+        setDecoration(slot, item);
     }
 
     /**
@@ -213,7 +420,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
     public void open(@NotNull final HumanEntity player, final int openPage) {
         if (player.isSleeping()) return;
 
-        int pagesSize = pages.size();
+        int pagesSize = getPagesSize();
         if (openPage < 0 || openPage >= pagesSize) {
             throw new IllegalArgumentException(
                     "\"openPage\" out of bounds; must be 0-" + (pagesSize - 1) +
@@ -223,7 +430,8 @@ public final class PaginatedMenu extends Menu implements Pagination {
         }
 
         this.pageNumber = openPage;
-        this.data = pages.get(openPage);
+        this.data = pageAt(openPage);
+        this.data.markAllDirty();
         player.openInventory(inventory);
     }
 
@@ -253,7 +461,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
      */
     @Override
     public int getPagesSize() {
-        return pages.size();
+        return pageSource == null ? pages.size() : pageCount;
     }
 
     /**
@@ -263,14 +471,8 @@ public final class PaginatedMenu extends Menu implements Pagination {
      */
     @Override
     public boolean next() {
-        int size = pages.size();
-        if (pageNumber + 1 >= size) return false;
-        int oldPageNum = pageNumber;
-
-        pageNumber++;
-        this.data = pages.get(pageNumber);
-
-        update();
+        if (pageNumber + 1 >= getPagesSize()) return false;
+        turnTo(pageNumber + 1);
         return true;
     }
 
@@ -282,11 +484,7 @@ public final class PaginatedMenu extends Menu implements Pagination {
     @Override
     public boolean previous() {
         if (pageNumber - 1 < 0) return false;
-
-        pageNumber--;
-        this.data = pages.get(pageNumber);
-
-        update();
+        turnTo(pageNumber - 1);
         return true;
     }
 
@@ -297,80 +495,135 @@ public final class PaginatedMenu extends Menu implements Pagination {
      */
     @Override
     public boolean page(int pageNum) {
-        int size = pages.size();
-        if (pageNum < 0 || pageNum > size) return false;
+        if (pageNum < 0 || pageNum >= getPagesSize()) return false;
+        turnTo(pageNum);
+        return true;
+    }
+
+    private void turnTo(int pageNum) {
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        long start = metrics.isEnabled() ? System.nanoTime() : 0L;
 
         this.pageNumber = pageNum;
-        this.data = pages.get(pageNum);
+        this.data = pageAt(pageNum);
+        this.data.markAllDirty();
         update();
-        return true;
+
+        if (metrics.isEnabled()) metrics.recordPageTurn(System.nanoTime() - start);
     }
 
     @Override
     public @Nullable ItemData getPage(int index) {
-        return (index < 0 || index > pages.size()) ? null : pages.get(index);
+        return (index < 0 || index >= getPagesSize()) ? null : pageAt(index);
     }
 
     @Override
     public Optional<ItemData> getOptionalPage(int index) {
-        return (index < 0 || index > pages.size()) ? Optional.empty() : Optional.ofNullable(getPage(index));
+        return Optional.ofNullable(getPage(index));
     }
 
     @Override
     public void addPageItems(MenuItem... items) {
+        checkPagesOwned();
         for (ItemData page : pages) page.addItem(items);
     }
 
     @Override
     public void addPageItems(ItemStack... items) {
+        checkPagesOwned();
         for (ItemData page : pages) page.addItem(items);
     }
 
+    /**
+     * Adds the items to the free slots of the pages in order, starting at the first page and adding pages until every item fits.
+     * <p>
+     * Every page is filled in a single pass, so loading a catalog of any size is linear in its amount of items.
+     * @param items the items to add
+     * @return the items which didn't fit, only ever non-empty if the decorations leave a page no free slot
+     */
+    @Override
+    public MenuItem @NotNull [] insertItems(@NotNull final MenuItem... items) {
+        checkPagesOwned();
+        int added = 0;
+        for (int pageIndex = 0; added < items.length; pageIndex++) {
+            boolean created = pageIndex == pages.size();
+            if (created) addPage();
+
+            ItemData page = pages.get(pageIndex);
+            int inserted = page.insert(items, added);
+            if (created && inserted == 0) {
+                pages.remove(pageIndex);
+                break;
+            }
+            if (inserted != 0 && page == data) changed = true;
+            added += inserted;
+        }
+        return added == items.length ? new MenuItem[0] : Arrays.copyOfRange(items, added, items.length);
+    }
+
+    private void checkPagesOwned() {
+        if (pageSource == null) return;
+        throw new IllegalStateException(
+            "Attempted to add items to every page of a PaginatedMenu built from a page source." +
+            "\nFix: Return the items from the page source, or use setPageItem to decorate every page with an item."
+        );
+    }
+
     @Override
     public void setPageItem(Slot slot, MenuItem item) {
-        for (ItemData page : pages) page.setItem(slot, item);
+        if (slot.isValid()) setPageItem(slot.slot, item);
     }
 
     @Override
     public void removePageItem(Slot slot) {
-        for (ItemData page : pages) page.removeItem(slot);
+        if (slot.isValid()) removePageItem(slot.slot);
     }
 
     @Override
     public void removePageItem(int slot) {
-        for (ItemData page : pages) page.removeItem(slot);
+        setDecoration(slot, null);
+        forEachPage(page -> page.removeItem(slot));
     }
 
     @Override
     public void removePageItem(ItemStack slot) {
-        for (ItemData page : pages) page.removeItem((item) -> item.getItemStack().equals(slot));
+        removePageItem(new ItemStack[] { slot });
     }
 
     @Override
     public void removePageItem(MenuItem slot) {
-        for (ItemData page : pages) page.removeItem((item) -> item.equals(slot));
+        removePageItem(new MenuItem[] { slot });
     }
 
+    /**
+     * Removes the stacks from the decorations and every page, each page only comparing the slots whose fingerprint matches.
+     * @param slot the stacks to remove
+     */
     @Override
     public void removePageItem(ItemStack... slot) {
         Set<ItemStack> set = ImmutableSet.copyOf(slot);
-        for (ItemData page : pages) page.indexed((item, index) -> { if (set.contains(item.getItemStack())) page.removeItem(index); });
+        removeDecorations((item) -> set.contains(item.getItemStack()));
+
+        // fingerprinted once, each page then only reads its cached fingerprints
+        int[] fingerprints = ItemData.fingerprints(slot);
+        forEachPage(page -> { if (page.removeAll(slot, fingerprints) != 0 && page == data) changed = true; });
     }
 
+    /**
+     * Removes the items from the decorations and every page, looking their slots up by id on each page instead of scanning it.
+     * @param slot the items to remove
+     */
     @Override
     public void removePageItem(MenuItem... slot) {
         Set<MenuItem> set = ImmutableSet.copyOf(slot);
-        for (ItemData page : pages) page.indexed((item, index) -> { if (set.contains(item)) page.removeItem(index); });
+        removeDecorations(set::contains);
+        forEachPage(page -> { if (page.removeAll(slot) != 0 && page == data) changed = true; });
     }
 
     @Override
     public void setPageItem(int[] slots, MenuItem[] items) {
         int size = slots.length;
-        for (ItemData page : pages) setPageItem0(page, size, slots, items);
-    }
-
-    private static void setPageItem0(ItemData page, int size, int[] slots, MenuItem[] items) {
-        for (int i = 0; i < size; i++) page.setItem(slots[i], items[i]);
+        for (int i = 0; i < size; i++) setPageItem(slots[i], items[i]);
     }
 
     @Override
@@ -378,8 +631,14 @@ public final class PaginatedMenu extends Menu implements Pagination {
         setPageItem(slot, MenuItem.of(item));
     }
 
+    /**
+     * Show the item at the slot of every page, by setting it as the decoration of that slot.
+     * @param slot the slot
+     * @param item the item
+     * @see #setDecoration(int, MenuItem)
+     */
     public void setPageItem(int slot, MenuItem item) {
-        for (ItemData page : pages) page.setItem(slot, item);
+        setDecoration(slot, item);
     }
 
     @Override
@@ -389,20 +648,13 @@ public final class PaginatedMenu extends Menu implements Pagination {
 
     @Override
     public void setPageItem(Slot[] slots, ItemStack... items) {
-        for (ItemData page : pages) setPageItem0(page, slots.length, slots, items);
-    }
-
-    private static void setPageItem0(ItemData page, int size, Slot[] slots, ItemStack... items) {
-        for (int i = 0; i < size; i++) page.setItem(slots[i], MenuItem.of(items[i]));
+        for (int i = 0; i < slots.length; i++) setPageItem(slots[i], MenuItem.of(items[i]));
     }
 
     @Override
     public void setPageItem(Slot[] slots, ItemStack item) {
-        for (ItemData page : pages) setPageItem0(page, slots.length, slots, item);
-    }
-
-    private static void setPageItem0(ItemData page, int size, Slot[] slots, ItemStack item) {
-        for (Slot slot : slots) page.setItem(slot, MenuItem.of(item));
+        MenuItem menuItem = MenuItem.of(item);
+        for (Slot slot : slots) setPageItem(slot, menuItem);
     }
 
     @Override
@@ -414,5 +666,6 @@ public final class PaginatedMenu extends Menu implements Pagination {
 
     public void setContents(ItemData data) {
         this.data = data;
+        this.data.markAllDirty();
     }
 }
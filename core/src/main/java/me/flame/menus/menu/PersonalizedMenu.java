@@ -0,0 +1,381 @@
+package me.flame.menus.menu;
+
+import me.flame.menus.adventure.TextHolder;
+import me.flame.menus.components.metrics.MenuMetrics;
+import me.flame.menus.components.metrics.MenuMetricsProvider;
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.modifiers.Modifier;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * A menu whose contents are a template shared by every viewer, plus a few slots overridden per viewer.
+ * <p>
+ * Every viewer gets an inventory of their own, rendered from the template and their {@link Overrides} when they open the menu.
+ * Template items are shared by reference, only the overridden slots cost memory per viewer,
+ * so one menu can serve hundreds of viewers showing their own balance or owned flags.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     PersonalizedMenu menu = PersonalizedMenu.create("Shop", 3);
+ *     menu.setItem(13, MenuItem.of(new ItemStack(Material.DIAMOND)));
+ *     menu.personalize((viewer, overrides) -> overrides.setItem(4, balanceItem(viewer)));
+ *     menu.open(player);
+ *     ...
+ *     menu.refresh(player); // the balance changed
+ * }</pre>
+ * Changes to the template are pushed to every viewer by {@link #update()}, slots a viewer overrides are left alone.
+ * @since 2.0.0
+ */
+@SuppressWarnings("unused")
+public final class PersonalizedMenu extends Menu {
+    private final Map<UUID, Viewer> viewers = new HashMap<>();
+
+    @NotNull
+    private BiConsumer<HumanEntity, Overrides> personalizer = (viewer, overrides) -> {};
+
+    // the entity being (re)opened, opening closes their previous inventory which must not drop them as a viewer
+    @Nullable
+    private HumanEntity opening;
+
+    private PersonalizedMenu(int rows, @NotNull TextHolder title, @NotNull EnumSet<Modifier> modifiers) {
+        super(rows, title, modifiers, true);
+    }
+
+    private PersonalizedMenu(@NotNull MenuType type, @NotNull TextHolder title, @NotNull EnumSet<Modifier> modifiers) {
+        super(type, title, modifiers, true);
+    }
+
+    /**
+     * Set how the overrides of a viewer are computed, called every time a viewer opens the menu or is {@linkplain #refresh refreshed}.
+     * @param personalizer the function filling the overrides of a viewer
+     * @return this menu
+     */
+    @NotNull
+    public PersonalizedMenu personalize(@NotNull BiConsumer<HumanEntity, Overrides> personalizer) {
+        this.personalizer = personalizer;
+        return this;
+    }
+
+    @Override
+    public void open(@NotNull HumanEntity entity) {
+        if (entity.isSleeping()) return;
+
+        Viewer viewer = viewers.get(entity.getUniqueId());
+        if (viewer == null) {
+            viewer = new Viewer(createViewerInventory());
+            viewers.put(entity.getUniqueId(), viewer);
+        }
+        viewer.overrides = personalize(entity);
+        render(viewer);
+
+        this.opening = entity;
+        try {
+            entity.openInventory(viewer.inventory);
+        } finally {
+            this.opening = null;
+        }
+    }
+
+    /**
+     * Recompute the overrides of a viewer, writing only the slots whose override changed.
+     * @param entity the viewer
+     * @return false if the entity isn't viewing this menu
+     */
+    public boolean refresh(@NotNull HumanEntity entity) {
+        Viewer viewer = viewers.get(entity.getUniqueId());
+        if (viewer == null) return false;
+
+        Overrides previous = viewer.overrides, current = personalize(entity);
+        viewer.overrides = current;
+
+        long slots = previous.slots | current.slots;
+        while (slots != 0L) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+
+            MenuItem item = current.getItem(slot);
+            if (item == previous.getItem(slot) && current.isOverridden(slot) == previous.isOverridden(slot)) continue;
+            if (!current.isOverridden(slot)) item = data.getItem(slot);
+            viewer.inventory.setItem(slot, item == null ? null : item.getItemStack());
+        }
+        return true;
+    }
+
+    /**
+     * Recompute the overrides of every viewer.
+     */
+    public void refreshAll() {
+        for (UUID id : new ArrayList<>(viewers.keySet())) {
+            HumanEntity entity = viewerEntity(viewers.get(id));
+            if (entity != null) refresh(entity);
+        }
+    }
+
+    /**
+     * Get the overrides currently shown to a viewer.
+     * @param entity the viewer
+     * @return the overrides, or null if the entity isn't viewing this menu
+     */
+    @Nullable
+    public Overrides getOverrides(@NotNull HumanEntity entity) {
+        Viewer viewer = viewers.get(entity.getUniqueId());
+        return viewer == null ? null : viewer.overrides;
+    }
+
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    @Override
+    public void update() {
+        if (!changed) return;
+        updateChanges();
+    }
+
+    /**
+     * Pushes the template slots which changed since the last push to every viewer, except where they're overridden.
+     */
+    @Override
+    public void updateChanges() {
+        if (deferUpdate()) return;
+        if (updateStatesOnUpdate) data.markStatefulDirty();
+        flush(Integer.MAX_VALUE);
+    }
+
+    @Override
+    int flush(int budget) {
+        long slots = data.getDirtySlots();
+        if (slots == 0L) return 0;
+
+        int written = 0;
+        while (slots != 0L && written < budget) {
+            int slot = Long.numberOfTrailingZeros(slots);
+            slots &= slots - 1;
+            data.clearDirty(1L << slot);
+
+            // states are refreshed once for the template, not once per viewer
+            MenuItem item = data.getItem(slot);
+            if (item != null && updateStatesOnUpdate && item.hasStates()) item.updateStates();
+            ItemStack itemStack = item == null ? null : item.getItemStack();
+
+            for (Viewer viewer : viewers.values()) {
+                if (viewer.overrides.isOverridden(slot)) continue;
+                viewer.inventory.setItem(slot, itemStack);
+                written++;
+            }
+        }
+
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        if (metrics.isEnabled()) metrics.recordSlotsWritten(written);
+        return written;
+    }
+
+    @Override
+    public void updateTitle(TextHolder title) {
+        this.title = title;
+        this.updating = true;
+        for (Viewer viewer : viewers.values()) {
+            HumanEntity entity = viewerEntity(viewer);
+            viewer.inventory = createViewerInventory();
+            render(viewer);
+            if (entity != null) entity.openInventory(viewer.inventory);
+        }
+        this.updating = false;
+    }
+
+    @Override
+    @Nullable
+    MenuItem itemFor(@NotNull HumanEntity entity, int slot) {
+        Viewer viewer = viewers.get(entity.getUniqueId());
+        if (viewer != null && viewer.overrides.isOverridden(slot)) return viewer.overrides.getItem(slot);
+        return data.getItem(slot);
+    }
+
+    @Override
+    void closed(@NotNull HumanEntity entity) {
+        if (!updating && entity != opening) viewers.remove(entity.getUniqueId());
+    }
+
+    // every viewer has an inventory of their own, one closing says nothing about the others
+    @Override
+    boolean hasViewers() {
+        return !viewers.isEmpty();
+    }
+
+    @Override
+    public List<HumanEntity> getViewers() {
+        List<HumanEntity> entities = new ArrayList<>(viewers.size());
+        for (Viewer viewer : viewers.values()) {
+            HumanEntity entity = viewerEntity(viewer);
+            if (entity != null) entities.add(entity);
+        }
+        return entities;
+    }
+
+    /**
+     * Grows the template by a row, then rebuilds the inventory and overrides of every viewer at the new size.
+     */
+    @Override
+    public void recreateInventory() {
+        super.recreateInventory();
+        this.updating = true;
+        for (Iterator<Viewer> iterator = viewers.values().iterator(); iterator.hasNext(); ) {
+            Viewer viewer = iterator.next();
+            HumanEntity entity = viewerEntity(viewer);
+            if (entity == null) {
+                iterator.remove();
+                continue;
+            }
+            viewer.inventory = createViewerInventory();
+            viewer.overrides = personalize(entity);
+            render(viewer);
+            entity.openInventory(viewer.inventory);
+        }
+        this.updating = false;
+    }
+
+    private Overrides personalize(HumanEntity entity) {
+        Overrides overrides = new Overrides(size);
+        personalizer.accept(entity, overrides);
+        return overrides;
+    }
+
+    private void render(Viewer viewer) {
+        Inventory inventory = viewer.inventory;
+        Overrides overrides = viewer.overrides;
+        for (int slot = 0; slot < size; slot++) {
+            MenuItem item = overrides.isOverridden(slot) ? overrides.getItem(slot) : data.getItem(slot);
+            inventory.setItem(slot, item == null ? null : item.getItemStack());
+        }
+    }
+
+    @NotNull
+    private Inventory createViewerInventory() {
+        return type == MenuType.CHEST ? title.toInventory(this, size) : title.toInventory(this, type.getType());
+    }
+
+    @Nullable
+    private static HumanEntity viewerEntity(@NotNull Viewer viewer) {
+        List<HumanEntity> entities = viewer.inventory.getViewers();
+        return entities.isEmpty() ? null : entities.get(0);
+    }
+
+    @NotNull @Contract("_, _ -> new")
+    public static PersonalizedMenu create(String title, int rows) {
+        return create(TextHolder.of(title), rows, EnumSet.noneOf(Modifier.class));
+    }
+
+    @NotNull @Contract("_, _ -> new")
+    public static PersonalizedMenu create(TextHolder title, int rows) {
+        return create(title, rows, EnumSet.noneOf(Modifier.class));
+    }
+
+    @NotNull @Contract("_, _, _ -> new")
+    public static PersonalizedMenu create(TextHolder title, int rows, EnumSet<Modifier> modifiers) {
+        return new PersonalizedMenu(rows, title, modifiers);
+    }
+
+    @NotNull @Contract("_, _, _ -> new")
+    public static PersonalizedMenu create(TextHolder title, MenuType type, EnumSet<Modifier> modifiers) {
+        return new PersonalizedMenu(type, title, modifiers);
+    }
+
+    private static final class Viewer {
+        Inventory inventory;
+        Overrides overrides = Overrides.NONE;
+
+        Viewer(Inventory inventory) {
+            this.inventory = inventory;
+        }
+    }
+
+    /**
+     * The slots of a {@link PersonalizedMenu} overridden for one viewer.
+     * <p>
+     * Only overridden slots are stored, packed in slot order behind a bitset of the overridden slots.
+     */
+    public static final class Overrides {
+        static final Overrides NONE = new Overrides(0);
+
+        private static final MenuItem[] NO_ITEMS = new MenuItem[0];
+
+        private final int size;
+        private long slots;
+        private MenuItem[] items = NO_ITEMS;
+
+        Overrides(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Override a slot for this viewer.
+         * @param slot the slot
+         * @param item the item shown instead of the template's, null to show an empty slot
+         * @return these overrides
+         */
+        @NotNull
+        public Overrides setItem(int slot, @Nullable MenuItem item) {
+            if (slot < 0 || slot >= size) {
+                throw new IllegalArgumentException(
+                        "Slot " + slot + " is outside of the menu (size " + size + ")" +
+                        "\nFix: Only override slots between 0 and the size of the menu."
+                );
+            }
+            int index = indexOf(slot);
+            if (isOverridden(slot)) {
+                items[index] = item;
+                return this;
+            }
+
+            int count = Long.bitCount(slots);
+            MenuItem[] grown = count == items.length ? Arrays.copyOf(items, Math.max(4, count << 1)) : items;
+            System.arraycopy(items, index, grown, index + 1, count - index);
+            grown[index] = item;
+            this.items = grown;
+            this.slots |= 1L << slot;
+            return this;
+        }
+
+        /**
+         * Stop overriding a slot, showing the template's item again.
+         * @param slot the slot
+         * @return these overrides
+         */
+        @NotNull
+        public Overrides removeItem(int slot) {
+            if (!isOverridden(slot)) return this;
+            int index = indexOf(slot), count = Long.bitCount(slots);
+            System.arraycopy(items, index + 1, items, index, count - index - 1);
+            items[count - 1] = null;
+            this.slots &= ~(1L << slot);
+            return this;
+        }
+
+        @Nullable
+        public MenuItem getItem(int slot) {
+            return isOverridden(slot) ? items[indexOf(slot)] : null;
+        }
+
+        public boolean isOverridden(int slot) {
+            return slot >= 0 && slot < Long.SIZE && (slots & (1L << slot)) != 0L;
+        }
+
+        public int size() {
+            return Long.bitCount(slots);
+        }
+
+        private int indexOf(int slot) {
+            return Long.bitCount(slots & ((1L << slot) - 1));
+        }
+    }
+}
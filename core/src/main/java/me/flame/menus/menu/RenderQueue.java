@@ -0,0 +1,111 @@
+package me.flame.menus.menu;
+
+import me.flame.menus.util.PluginProvider;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+
+/**
+ * Coalesces the updates of every menu with {@linkplain Menu#setQueuedRendering(boolean) queued rendering}
+ * into one push per menu per tick.
+ * <p>
+ * Updating such a menu only queues it, however many times it's updated in a tick. A single repeating task then pushes
+ * the changed slots of the queued menus in the order they were queued, writing at most {@link #getSlotBudget()}
+ * slots per tick. A menu the budget ran out on stays first in line and carries its remaining slots over
+ * to the next tick, so broadcasting a big change to many menus is spread over several ticks instead of spiking one.
+ * <p>
+ * The task only exists while at least one menu is queued.
+ * <pre>{@code
+ *     RenderQueue.get().setSlotBudget(2048);
+ *     menu.setQueuedRendering(true);
+ *     ...
+ *     menu.setItem(4, item);
+ *     menu.update(); // pushed on the next tick
+ * }</pre>
+ * @since 2.0.0
+ */
+@SuppressWarnings("unused")
+public final class RenderQueue {
+    private static final RenderQueue QUEUE = new RenderQueue();
+
+    private final ArrayDeque<Menu> menus = new ArrayDeque<>();
+
+    private int slotBudget = 1024;
+
+    private BukkitTask task;
+
+    private RenderQueue() {}
+
+    /**
+     * Get the queue shared by every menu.
+     * @return the queue
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static RenderQueue get() {
+        return QUEUE;
+    }
+
+    public int getSlotBudget() {
+        return slotBudget;
+    }
+
+    /**
+     * Set how many slots may be written per tick across every queued menu.
+     * @param slotBudget the amount of slots, at least 1
+     */
+    public void setSlotBudget(int slotBudget) {
+        this.slotBudget = Math.max(1, slotBudget);
+    }
+
+    /**
+     * Get the amount of menus waiting to be pushed.
+     * @return the amount of queued menus
+     */
+    public int size() {
+        return menus.size();
+    }
+
+    /**
+     * Push every queued menu right away, ignoring the slot budget.
+     */
+    public void flushAll() {
+        Menu menu;
+        while ((menu = menus.pollFirst()) != null) {
+            menu.queued = false;
+            menu.flush(Integer.MAX_VALUE);
+        }
+        stopIfIdle();
+    }
+
+    void enqueue(@NotNull Menu menu) {
+        if (menu.queued) return;
+        menu.queued = true;
+        menus.addLast(menu);
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(PluginProvider.get(), this::tick, 1L, 1L);
+    }
+
+    private void tick() {
+        int budget = slotBudget;
+        while (budget > 0 && !menus.isEmpty()) {
+            Menu menu = menus.peekFirst();
+            budget -= menu.flush(budget);
+            if (menu.data.isDirty()) break; // out of budget, the rest of this menu goes first next tick
+
+            menus.pollFirst();
+            menu.queued = false;
+        }
+        stopIfIdle();
+    }
+
+    private void stopIfIdle() {
+        if (!menus.isEmpty() || task == null) return;
+        task.cancel();
+        task = null;
+    }
+}
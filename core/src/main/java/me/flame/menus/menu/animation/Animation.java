@@ -5,9 +5,9 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import me.flame.menus.menu.Menu;
 import me.flame.menus.menu.animation.variants.NormalAnimation;
 import me.flame.menus.menu.animation.variants.RepeatedAnimation;
+import me.flame.menus.util.PluginProvider;
 import org.bukkit.plugin.Plugin;
 
-import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
@@ -18,7 +18,7 @@ import java.util.List;
 import java.util.Optional;
 
 /**
- * Animations in Woody are highly dependent on bukkit scheduler. shout out to bukkit
+ * Animations in Woody are driven by the shared {@link AnimationEngine}, one bukkit task ticks every running animation.
  * <p>
  * Example usage:
  * <pre>{@code
@@ -42,16 +42,29 @@ public abstract class Animation {
     protected final int delay;
     protected final Menu menu;
     protected List<Frame> frames;
-    protected AnimationScheduler scheduler;
-    private static final Plugin plugin = JavaPlugin.getProvidingPlugin(Animation.class);
+    private static final Plugin plugin = PluginProvider.get();
 
     public Animation(int delay, Frame[] frames, Menu menu) {
         this.menu = menu;
         this.delay = delay;
         this.frameIndex = 0;
         this.frames = new ArrayList<>(List.of(frames));
+
+        // every frame only carries the slots that changed since the frame before it, the first one since the last
+        for (int index = 0, size = frames.length; index < size; index++) {
+            Frame frame = frames[index];
+            if (frame != null) frame.diff(frames[(index + size - 1) % size]);
+        }
     }
 
+    @Nullable
+    private Frame current;
+
+    // engine bookkeeping, only touched on the main thread by AnimationEngine
+    long deadline;
+    int bucket = -1;
+    boolean active, deferred;
+
 
     public void reset() {
         frameIndex = 0;
@@ -63,24 +76,34 @@ public abstract class Animation {
         Frame frame = frames.get(frameIndex);
         if (frame != null) {
             frameIndex++;
-            frame.start();
+            if (frame.follows(current)) frame.apply();
+            else frame.start();
+            current = frame;
         }
         return frame;
     }
 
     @CanIgnoreReturnValue
-    @Contract(pure = true)
     public Frame start() {
         frameIndex = 0;
-        this.scheduler = new AnimationScheduler(this, delay);
+        AnimationEngine.get().schedule(this);
         return frames.get(frameIndex);
     }
 
     public void stop() {
-        if (this.scheduler != null && !this.scheduler.isCancelled()) this.scheduler.cancel();
+        AnimationEngine.get().cancel(this);
+        current = null;
         Optional.of(frames.get(0)).ifPresent(Frame::reset);
     }
 
+    /**
+     * Check if the animation is currently scheduled on the {@link AnimationEngine}.
+     * @return true if the animation is running
+     */
+    public boolean isRunning() {
+        return active;
+    }
+
     @CanIgnoreReturnValue
     public abstract Frame onFinish();
 
@@ -128,6 +151,10 @@ public abstract class Animation {
         }
     }
 
+    /**
+     * @deprecated animations are ticked by the shared {@link AnimationEngine}, this creates a bukkit task per animation.
+     */
+    @Deprecated
     public static class AnimationScheduler extends BukkitRunnable {
         private final Animation scheduledAnimation;
 
@@ -0,0 +1,176 @@
+package me.flame.menus.menu.animation;
+
+import me.flame.menus.components.metrics.MenuMetrics;
+import me.flame.menus.components.metrics.MenuMetricsProvider;
+import me.flame.menus.util.PluginProvider;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * The single scheduler behind every {@link Animation}.
+ * <p>
+ * Instead of one bukkit task per animation, the engine owns one repeating task and a hashed timing wheel:
+ * animations are stored in the bucket of the tick they fire next at, and every tick only that bucket is visited.
+ * The cost of a tick depends on how many animations are due, not how many are running.
+ * <p>
+ * The task only exists while at least one animation is scheduled.
+ * @author FlameyosFlow
+ * @since 2.0.0
+ */
+@SuppressWarnings("unused")
+public final class AnimationEngine {
+    private static final int WHEEL_SIZE = 64, WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private static final Plugin plugin = PluginProvider.get();
+
+    private static final AnimationEngine ENGINE = new AnimationEngine();
+
+    private final List<List<Animation>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    // animations (re)scheduled or cancelled while the wheel is being advanced, placed once the tick is over
+    private final List<Animation> pending = new ArrayList<>();
+
+    private List<Animation> spare = new ArrayList<>();
+
+    private long tick;
+
+    private int scheduled;
+
+    private boolean ticking;
+
+    private BukkitTask task;
+
+    private AnimationEngine() {
+        for (int bucket = 0; bucket < WHEEL_SIZE; bucket++) wheel.add(new ArrayList<>());
+    }
+
+    /**
+     * Get the engine shared by every animation.
+     * @return the engine
+     */
+    @NotNull
+    @Contract(pure = true)
+    public static AnimationEngine get() {
+        return ENGINE;
+    }
+
+    /**
+     * Get the amount of animations currently scheduled.
+     * @return the amount of scheduled animations
+     */
+    public int getScheduledCount() {
+        return scheduled + pending.size();
+    }
+
+    /**
+     * Check if the engine's task is currently running.
+     * @return true if at least one animation is scheduled and the task is running
+     */
+    public boolean isRunning() {
+        return task != null;
+    }
+
+    void schedule(@NotNull Animation animation) {
+        animation.deadline = tick + Math.max(1, animation.delay);
+        animation.active = true;
+        if (ticking) {
+            defer(animation);
+            return;
+        }
+        relocate(animation);
+        if (task == null) task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    void cancel(@NotNull Animation animation) {
+        animation.active = false;
+        if (ticking) {
+            defer(animation);
+            return;
+        }
+        relocate(animation);
+    }
+
+    private void defer(Animation animation) {
+        if (animation.deferred) return;
+        animation.deferred = true;
+        pending.add(animation);
+    }
+
+    private void relocate(Animation animation) {
+        if (animation.bucket != -1) {
+            wheel.get(animation.bucket).remove(animation);
+            animation.bucket = -1;
+            scheduled--;
+        }
+        if (animation.active) place(animation);
+    }
+
+    private void place(Animation animation) {
+        int bucket = (int) (animation.deadline & WHEEL_MASK);
+        wheel.get(bucket).add(animation);
+        animation.bucket = bucket;
+        scheduled++;
+    }
+
+    private void tick() {
+        long now = ++tick;
+        int bucket = (int) (now & WHEEL_MASK);
+
+        List<Animation> due = wheel.get(bucket);
+        wheel.set(bucket, spare);
+
+        int advanced = 0;
+        ticking = true;
+        for (int index = 0, size = due.size(); index < size; index++) {
+            Animation animation = due.get(index);
+            animation.bucket = -1;
+            scheduled--;
+
+            if (animation.deferred || !animation.active) continue;
+            if (animation.deadline > now) { // not due for this round of the wheel yet
+                place(animation);
+                continue;
+            }
+            advance(animation, now);
+            advanced++;
+        }
+        ticking = false;
+
+        MenuMetrics metrics = MenuMetricsProvider.get();
+        if (metrics.isEnabled()) metrics.recordAnimationTick(advanced);
+
+        due.clear();
+        spare = due;
+
+        for (Animation animation : pending) {
+            animation.deferred = false;
+            relocate(animation);
+        }
+        pending.clear();
+
+        if (scheduled == 0 && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private void advance(Animation animation, long now) {
+        animation.deadline = now + Math.max(1, animation.delay);
+        try {
+            if (animation.next() == null) animation.active = false;
+        } catch (RuntimeException exception) {
+            animation.active = false;
+            plugin.getLogger().log(Level.SEVERE, "An animation threw an exception and was stopped", exception);
+        }
+        if (!animation.deferred && animation.active) place(animation);
+    }
+}
@@ -9,20 +9,32 @@ import me.flame.menus.menu.Menu;
 import me.flame.menus.menu.Slot;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 
 /**
  * To be used in building Frames.
+ * <p>
+ * Besides its full contents, a frame keeps the slots that differ from the frame played before it,
+ * so an {@link Animation} only has to write those slots when it advances to this frame.
  * @since 2.0.0
  */
 public class Frame {
+    private static final int[] NO_SLOTS = new int[0];
+    private static final MenuItem[] NO_ITEMS = new MenuItem[0];
+
     private final MenuItem[] items;
     private MenuItem[] defaultItems;
     private final Menu menu;
 
     private boolean started = false;
 
+    @Nullable
+    private Frame base;
+    private int[] changedSlots = NO_SLOTS;
+    private MenuItem[] changedItems = NO_ITEMS;
+
     @Contract(pure = true)
     private Frame(MenuItem @NotNull [] items, Menu menu) {
         this.menu = menu;
@@ -33,12 +45,75 @@ public class Frame {
     @NotNull
     @CanIgnoreReturnValue
     public Frame start() {
+        markStarted();
+        menu.setContents(Arrays.copyOf(items, items.length));
+        return this;
+    }
+
+    /**
+     * Play this frame on top of the frame it was {@linkplain #diff(Frame) diffed} against,
+     * writing only the slots that differ between the two instead of the whole menu.
+     * <p>
+     * The menu must currently be showing the base frame, otherwise use {@link #start()}.
+     * @return this frame
+     */
+    @NotNull
+    @CanIgnoreReturnValue
+    public Frame apply() {
+        if (base == null) return start();
+        markStarted();
+        for (int index = 0; index < changedSlots.length; index++) menu.setItem(changedSlots[index], changedItems[index]);
+        menu.updateChanges();
+        return this;
+    }
+
+    /**
+     * Compute the slots of this frame that differ from the given frame; a slot differs when it doesn't hold the same item instance.
+     * @param previous the frame played before this one, or null to always play this frame in full
+     */
+    public void diff(@Nullable Frame previous) {
+        if (previous == null || previous == this || previous.items.length != items.length) {
+            this.base = null;
+            this.changedSlots = NO_SLOTS;
+            this.changedItems = NO_ITEMS;
+            return;
+        }
+
+        int[] slots = new int[items.length];
+        int count = 0;
+        for (int slot = 0; slot < items.length; slot++) if (items[slot] != previous.items[slot]) slots[count++] = slot;
+
+        this.base = previous;
+        this.changedSlots = Arrays.copyOf(slots, count);
+        this.changedItems = new MenuItem[count];
+        for (int index = 0; index < count; index++) changedItems[index] = items[changedSlots[index]];
+    }
+
+    /**
+     * Check if this frame can be played with {@link #apply()} right after the given frame.
+     * @param previous the frame currently shown
+     * @return true if this frame was diffed against the given frame
+     */
+    public boolean follows(@Nullable Frame previous) {
+        return previous != null && base == previous;
+    }
+
+    /**
+     * Get the slots this frame changes compared to the frame it was diffed against.
+     * @return a copy of the changed slots, or every slot if this frame isn't diffed
+     */
+    public int @NotNull [] getChangedSlots() {
+        if (base != null) return changedSlots.clone();
+        int[] slots = new int[items.length];
+        for (int slot = 0; slot < slots.length; slot++) slots[slot] = slot;
+        return slots;
+    }
+
+    private void markStarted() {
         if (!started) {
             this.defaultItems = items;
             started = true;
         }
-        menu.setContents(Arrays.copyOf(items, items.length));
-        return this;
     }
 
     public void reset() {
@@ -56,6 +131,8 @@ public class Frame {
 
         private final Menu menu;
 
+        private Frame previous;
+
         @Contract(pure = true)
         Builder(@NotNull Menu menu) {
             this.menu = menu;
@@ -68,6 +145,19 @@ public class Frame {
             return this;
         }
 
+        /**
+         * Start from the contents of another frame, so only the slots that should change have to be set.
+         * @param previous the frame to copy the contents of
+         * @return this builder
+         */
+        @NotNull
+        public Builder from(@NotNull Frame previous) {
+            this.previous = previous;
+            MenuItem[] items = previous.items;
+            for (int slot = 0, size = Math.min(items.length, menu.size()); slot < size; slot++) this.data.setItem(slot, items[slot]);
+            return this;
+        }
+
         @NotNull
         public Builder setItem(int slot, MenuItem item) {
             this.data.setItem(slot, item);
@@ -82,7 +172,9 @@ public class Frame {
 
         @NotNull
         public Frame build() {
-            return new Frame(this.data.getItems(), this.menu);
+            Frame frame = new Frame(this.data.getItems(), this.menu);
+            frame.diff(previous);
+            return frame;
         }
     }
 }
@@ -11,6 +11,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.ObjIntConsumer;
 
 /**
  *
@@ -21,18 +22,18 @@ import java.util.Optional;
  */
 @SuppressWarnings("unused")
 public final class MenuIterator implements Iterator<MenuItem> {
-    @NotNull
-    private Slot position;
-
     @NotNull
     private final IterationDirection direction;
 
     @NotNull
     private final IMenu menu;
 
-    private Slot next;
+    // the slots visited, shared by every iterator of the same direction, rows and starting slot
+    private final int @NotNull [] order;
 
-    private final int rows;
+    private final int size;
+
+    private int cursor;
 
     private static final String NOTHING_MORE_NEXT =
             "Used MenuIterator#next() but nothing more" +
@@ -52,25 +53,20 @@ public final class MenuIterator implements Iterator<MenuItem> {
     public MenuIterator(int startingRow, int startingCol,
                         @NotNull IterationDirection direction,
                         @NotNull IMenu menu) {
-        Slot prepos = new Slot(startingRow, startingCol);
-        if (!prepos.isValid()) throw new IllegalArgumentException(GREATER_THAN_ONE_ONLY);
+        if (startingRow < 1 || startingCol < 1) throw new IllegalArgumentException(GREATER_THAN_ONE_ONLY);
         this.menu = menu;
-        this.next = prepos;
-        this.position = prepos;
         this.direction = direction;
-
-        this.rows = menu.rows();
+        this.size = menu.size();
+        this.order = direction.order(rowsOf(size), (startingRow - 1) * 9 + startingCol - 1);
     }
 
     public MenuIterator(@NotNull IterationDirection direction, @NotNull IMenu menu) {
         this.menu = menu;
-
-        Slot first = Slot.getFirst();
-        this.next = first;
-        this.position = first;
         this.direction = direction;
+        this.size = menu.size();
 
-        this.rows = menu.rows();
+        int rows = rowsOf(size);
+        this.order = direction.order(rows, direction.first(rows));
     }
 
     /**
@@ -81,38 +77,61 @@ public final class MenuIterator implements Iterator<MenuItem> {
      */
     public @Nullable Slot nextSlot(boolean emptyOnly) {
         if (!emptyOnly) return nextSlot();
-
-        while (menu.hasItem(position)) {
-            position = direction.shift(position, this.rows);
-            if (!position.isValid()) return null;
-        }
-
-        // when it becomes empty
-        return position;
+        int slot = nextEmptyIndex();
+        return slot == -1 ? null : Slot.of(slot);
     }
 
     /**
      * Retrieves the next slot in the menu.
-     * @return           the next empty slot in the menu, or null if no empty slot is found
+     * @return           the next slot, or null if there are no more slots
      */
     public @Nullable Slot nextSlot() {
-        position = next;
-        next = null;
-        return position;
+        return hasNext() ? Slot.of(order[cursor++]) : null;
+    }
+
+    /**
+     * Retrieves the next slot in the menu without allocating a {@link Slot}.
+     * @return the next slot
+     * @throws NoSuchElementException if there are no more slots
+     */
+    public int nextIndex() {
+        if (!hasNext()) throw new NoSuchElementException(NOTHING_MORE_NEXT);
+        return order[cursor++];
+    }
+
+    /**
+     * Retrieves the next empty slot in the menu without allocating a {@link Slot}.
+     * @return the next empty slot, or -1 if every slot left is filled
+     */
+    public int nextEmptyIndex() {
+        while (hasNext()) {
+            int slot = order[cursor++];
+            if (!menu.hasItem(slot)) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Performs the action for every slot left and its item, consuming this iterator.
+     * @param action the action, given the item (null if the slot is empty) and its slot
+     */
+    public void forEachIndexed(@NotNull ObjIntConsumer<@Nullable MenuItem> action) {
+        while (hasNext()) {
+            int slot = order[cursor++];
+            action.accept(menu.getItem(slot), slot);
+        }
     }
 
     @Override
     public boolean hasNext() {
-        if (next != null) return true;
-        next = direction.shift(position, this.rows);
-        return next.isValid();
+        // the last row of menus which aren't chests may be partial
+        while (cursor < order.length && order[cursor] >= size) cursor++;
+        return cursor < order.length;
     }
 
     @Override
     public MenuItem next() {
-        Slot slot = nextSlot();
-        if (slot != null) return menu.getItem(slot);
-        throw new NoSuchElementException(NOTHING_MORE_NEXT);
+        return menu.getItem(nextIndex());
     }
 
     /**
@@ -121,19 +140,15 @@ public final class MenuIterator implements Iterator<MenuItem> {
      * @return         	the next non-null MenuItem in the menu
      */
     public @NotNull MenuItem nextNotNull() {
+        int last = -1;
         while (hasNext()) {
-            Slot slot = nextSlot();
-            if (slot == null)
-                throw new NoSuchElementException(NOTHING_MORE_NEXT_NOT_NULL +
-                    "\nFix: Everything after slot " + position.getSlot() + " is empty/null."
-                );
-
-            MenuItem item = menu.getItem(slot);
+            last = order[cursor++];
+            MenuItem item = menu.getItem(last);
             if (item != null) return item;
         }
 
         throw new NoSuchElementException(NOTHING_MORE_NEXT_NOT_NULL +
-            "\nFix: Everything after slot " + position.getSlot() + " is empty/null."
+            "\nFix: Everything after slot " + last + " is empty/null."
         );
     }
 
@@ -147,8 +162,16 @@ public final class MenuIterator implements Iterator<MenuItem> {
      * @throws NoSuchElementException if there are no more items in the menu.
      */
     public Optional<MenuItem> nextOptional() {
-        Slot slot = nextSlot();
-        if (slot != null) return menu.get(slot);
-        throw new NoSuchElementException(NOTHING_MORE_NEXT_OPTIONAL);
+        if (!hasNext()) throw new NoSuchElementException(NOTHING_MORE_NEXT_OPTIONAL);
+        return menu.get(order[cursor++]);
+    }
+
+    @NotNull
+    public IterationDirection getDirection() {
+        return direction;
+    }
+
+    private static int rowsOf(int size) {
+        return Math.max(1, Math.min(6, (size + 8) / 9));
     }
 }
@@ -0,0 +1,223 @@
+package me.flame.menus.menu.layout;
+
+import me.flame.menus.items.MenuItem;
+import me.flame.menus.menu.IMenu;
+import me.flame.menus.menu.Menu;
+import me.flame.menus.menu.PaginatedMenu;
+import me.flame.menus.modifiers.Modifier;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+
+/**
+ * A layout parsed once from its patterns, to be stamped onto any amount of menus.
+ * <p>
+ * Every character bound to an item gets a {@code long} mask of the slots it's in, and every slot its item,
+ * so stamping is a loop over the occupied slots without parsing, map lookups or boxing.
+ * A compiled layout is immutable and can be cached and shared across menus and threads.
+ * <p>
+ * Example usage:
+ * <pre>{@code
+ *     private static final CompiledLayout SHOP = CompiledLayout.compile(items,
+ *             "KKKKKKKKK",
+ *             "K       K",
+ *             "KKKKKKKKK");
+ *     ...
+ *     Menu menu = SHOP.createMenu("Shop");
+ * }</pre>
+ * @see MenuLayoutBuilder#compile()
+ * @since 2.0.0
+ */
+@SuppressWarnings("unused")
+public final class CompiledLayout {
+    private static final int ROW_SIZE = 9;
+
+    private final int rows;
+
+    // parallel arrays, one entry per character bound to an item
+    private final char[] characters;
+    private final long[] masks;
+    private final MenuItem[] items;
+
+    private final long occupied;
+    private final MenuItem[] slots;
+
+    private CompiledLayout(int rows, char[] characters, long[] masks, MenuItem[] items, long occupied, MenuItem[] slots) {
+        this.rows = rows;
+        this.characters = characters;
+        this.masks = masks;
+        this.items = items;
+        this.occupied = occupied;
+        this.slots = slots;
+    }
+
+    /**
+     * Compile patterns against the items bound to their characters, characters without an item are left empty.
+     * @param itemMap the item of every character
+     * @param patterns one string of up to 9 characters per row
+     * @return the compiled layout
+     */
+    @NotNull
+    @Contract("_, _ -> new")
+    public static CompiledLayout compile(@NotNull Map<Character, MenuItem> itemMap, String @NotNull ... patterns) {
+        int rows = patterns.length;
+        if (rows > 6 || rows < 1) {
+            throw new IllegalArgumentException(
+                    "Patterns array has an invalid amount of rows (" + rows + ")" +
+                    "\nFix: Use between 1 and 6 strings in the array of patterns."
+            );
+        }
+
+        char[] characters = new char[0];
+        long[] masks = new long[0];
+        MenuItem[] items = new MenuItem[0];
+        MenuItem[] slots = new MenuItem[rows * ROW_SIZE];
+        long occupied = 0L;
+
+        for (int row = 0; row < rows; row++) {
+            String pattern = patterns[row];
+            if (pattern.length() > ROW_SIZE) {
+                throw new IllegalArgumentException(
+                        "Pattern of row " + (row + 1) + " is too long (\"" + pattern + "\", " + pattern.length() + " characters)" +
+                        "\nFix: Patterns must be at most 9 characters long."
+                );
+            }
+
+            for (int column = 0; column < pattern.length(); column++) {
+                char character = pattern.charAt(column);
+                int index = indexOf(characters, character);
+                if (index == -1) {
+                    MenuItem item = itemMap.get(character);
+                    if (item == null) continue;
+
+                    index = characters.length;
+                    characters = Arrays.copyOf(characters, index + 1);
+                    masks = Arrays.copyOf(masks, index + 1);
+                    items = Arrays.copyOf(items, index + 1);
+                    characters[index] = character;
+                    items[index] = item;
+                }
+
+                int slot = row * ROW_SIZE + column;
+                masks[index] |= 1L << slot;
+                slots[slot] = items[index];
+                occupied |= 1L << slot;
+            }
+        }
+        return new CompiledLayout(rows, characters, masks, items, occupied, slots);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int size() {
+        return rows * ROW_SIZE;
+    }
+
+    /**
+     * Get the slots a character occupies.
+     * @param character the character
+     * @return the slots as a bitset, bit {@code n} being slot {@code n}, 0 if the character isn't bound to an item
+     */
+    public long getMask(char character) {
+        int index = indexOf(characters, character);
+        return index == -1 ? 0L : masks[index];
+    }
+
+    /**
+     * Get the item bound to a character.
+     * @param character the character
+     * @return the item, or null if the character isn't bound to one
+     */
+    @Nullable
+    public MenuItem getItem(char character) {
+        int index = indexOf(characters, character);
+        return index == -1 ? null : items[index];
+    }
+
+    /**
+     * Get the slots holding an item.
+     * @return the slots as a bitset, bit {@code n} being slot {@code n}
+     */
+    public long getOccupiedSlots() {
+        return occupied;
+    }
+
+    /**
+     * Get the contents of the layout, to be used with {@link Menu#setContents(MenuItem...)}.
+     * @return a copy of the item of every slot
+     */
+    public MenuItem @NotNull [] getContents() {
+        return slots.clone();
+    }
+
+    /**
+     * Set the items of this layout in the menu, slots the layout leaves empty aren't touched.
+     * <p>
+     * A {@link PaginatedMenu} gets the items in its decoration layer whatever the type it's referenced by,
+     * see {@link #stamp(PaginatedMenu)}.
+     * @param menu the menu to stamp
+     */
+    public void stamp(@NotNull IMenu menu) {
+        if (menu instanceof PaginatedMenu) {
+            stamp((PaginatedMenu) menu);
+            return;
+        }
+
+        long remaining = occupied;
+        int size = menu.size();
+        while (remaining != 0L) {
+            int slot = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            if (slot >= size) break;
+            menu.setItem(slot, slots[slot]);
+        }
+    }
+
+    /**
+     * Set the items of this layout in the decoration layer of the menu, so they show on every page.
+     * @param menu the menu to stamp
+     * @see PaginatedMenu#decorate(java.util.function.IntPredicate, MenuItem)
+     */
+    public void stamp(@NotNull PaginatedMenu menu) {
+        for (int index = 0; index < characters.length; index++) {
+            long mask = masks[index];
+            menu.decorate(slot -> slot < Long.SIZE && (mask & (1L << slot)) != 0L, items[index]);
+        }
+    }
+
+    @NotNull
+    public Menu createMenu(String title) {
+        return createMenu(title, EnumSet.noneOf(Modifier.class));
+    }
+
+    @NotNull
+    public Menu createMenu(String title, EnumSet<Modifier> modifiers) {
+        Menu menu = Menu.create(title, rows, modifiers);
+        menu.setContents(getContents());
+        return menu;
+    }
+
+    @NotNull
+    public PaginatedMenu createPaginated(String title, int pages) {
+        return createPaginated(title, pages, EnumSet.noneOf(Modifier.class));
+    }
+
+    @NotNull
+    public PaginatedMenu createPaginated(String title, int pages, EnumSet<Modifier> modifiers) {
+        PaginatedMenu menu = PaginatedMenu.create(title, rows, pages, modifiers);
+        stamp(menu);
+        return menu;
+    }
+
+    private static int indexOf(char[] characters, char character) {
+        for (int index = 0; index < characters.length; index++) if (characters[index] == character) return index;
+        return -1;
+    }
+}
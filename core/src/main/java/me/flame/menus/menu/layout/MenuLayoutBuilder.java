@@ -1,7 +1,6 @@
 package me.flame.menus.menu.layout;
 
 import me.flame.menus.items.MenuItem;
-import me.flame.menus.menu.IMenu;
 import me.flame.menus.menu.Menu;
 import me.flame.menus.menu.PaginatedMenu;
 
@@ -45,6 +44,8 @@ public final class MenuLayoutBuilder {
 
     private int rows;
 
+    private CompiledLayout layout;
+
     MenuLayoutBuilder(@NotNull Map<Character, MenuItem> itemMap) {
         this.itemMap = itemMap;
         this.patterns = null;
@@ -54,6 +55,7 @@ public final class MenuLayoutBuilder {
     public MenuLayoutBuilder pattern(String @NotNull... patterns) {
         this.patterns = patterns;
         this.rows = patterns.length;
+        this.layout = null;
         return this;
     }
 
@@ -63,14 +65,20 @@ public final class MenuLayoutBuilder {
         return new MenuLayoutBuilder(itemMap);
     }
 
-    private void addItems(IMenu menu) {
-        int size = rows ^ 3;
-        for (int i = 0; i < size; i++) {
-            int row = i / 9, col = i % 9;
-
-            MenuItem menuItem = itemMap.get(patterns[row].charAt(col));
-            if (menuItem != null) menu.setItem(i, menuItem);
-        }
+    /**
+     * Compiles the patterns into a layout which can be cached and stamped onto any amount of menus.
+     * <p>
+     * The layout is compiled once and reused by every menu this builder creates, until the patterns change.
+     * @return the compiled layout
+     */
+    @NotNull
+    public CompiledLayout compile() {
+        if (patterns == null)
+            throw new IllegalStateException("No patterns specified. \nFix: use the pattern() method before creating the menu.");
+        else if (rows > 6 || rows < 1)
+            throw new IllegalStateException("Patterns array has too many rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
+        if (layout == null) layout = CompiledLayout.compile(itemMap, patterns);
+        return layout;
     }
 
     /**
@@ -80,12 +88,9 @@ public final class MenuLayoutBuilder {
      * @return        the created menu
      */
     public @NotNull Menu createMenu(String title) {
-        if (patterns == null)
-            throw new IllegalStateException("No patterns specified. \nFix: use the pattern() method before creating the menu.");
-        else if (rows > 6 || rows < 1)
-            throw new IllegalStateException("Patterns array has too many rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
-        Menu menu = Menu.create(title, rows);
-        addItems(menu);
+        CompiledLayout layout = compile();
+        Menu menu = Menu.create(title, layout.rows());
+        layout.stamp(menu);
         return menu;
     }
 
@@ -96,12 +101,9 @@ public final class MenuLayoutBuilder {
      * @return        the created menu
      */
     public Menu createMenu(String title, EnumSet<Modifier> modifiers) {
-        if (patterns == null)
-            throw new IllegalStateException("No patterns specified. \nFix: use the pattern() method before creating the menu.");
-        else if (rows > 6 || rows < 1)
-            throw new IllegalStateException("Patterns array has too many rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
-        Menu menu = Menu.create(title, rows, modifiers);
-        addItems(menu);
+        CompiledLayout layout = compile();
+        Menu menu = Menu.create(title, layout.rows(), modifiers);
+        layout.stamp(menu);
         return menu;
     }
 
@@ -113,12 +115,9 @@ public final class MenuLayoutBuilder {
      * @return        the created paginated menu
      */
     public PaginatedMenu createPaginated(String title, int pages) {
-        if (patterns == null)
-            throw new IllegalStateException("No patterns specified. \nFix: use the pattern() method before creating the menu.");
-        else if (rows > 6 || rows < 1)
-            throw new IllegalStateException("Patterns array has too many rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
-        PaginatedMenu menu = PaginatedMenu.create(title, rows, pages);
-        addItems(menu);
+        CompiledLayout layout = compile();
+        PaginatedMenu menu = PaginatedMenu.create(title, layout.rows(), pages);
+        layout.stamp(menu);
         return menu;
     }
 
@@ -130,12 +129,9 @@ public final class MenuLayoutBuilder {
      * @return        the created paginated menu
      */
     public PaginatedMenu createPaginated(String title, int pages, EnumSet<Modifier> modifiers) {
-        if (patterns == null)
-            throw new IllegalStateException("No patterns specified. \nFix: use the pattern() method before creating the menu.");
-        else if (rows > 6 || rows < 1)
-            throw new IllegalStateException("Patterns array has too many rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
-        PaginatedMenu menu = PaginatedMenu.create(title, rows, pages, modifiers);
-        addItems(menu);
+        CompiledLayout layout = compile();
+        PaginatedMenu menu = PaginatedMenu.create(title, layout.rows(), pages, modifiers);
+        layout.stamp(menu);
         return menu;
     }
 
@@ -145,12 +141,9 @@ public final class MenuLayoutBuilder {
      * @return        the created paginated menu
      */
     public PaginatedMenu createPaginated(String title) {
-        if (patterns == null)
-            throw new IllegalStateException("No patterns specified. \nFix: use the pattern() method before creating the menu.");
-        else if (rows > 6 || rows < 1)
-            throw new IllegalStateException("Patterns array has too many rows (" + rows + "). \nFix: Reduce/increase the amount of strings in the array of pattern()");
-        PaginatedMenu menu = PaginatedMenu.create(title, rows, 3);
-        addItems(menu);
+        CompiledLayout layout = compile();
+        PaginatedMenu menu = PaginatedMenu.create(title, layout.rows(), 3);
+        layout.stamp(menu);
         return menu;
     }
 }
@@ -0,0 +1,140 @@
+package me.flame.menus.modifiers;
+
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryType;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+
+/**
+ * Decides whether a click is denied by the {@link Modifier}s of a menu.
+ * <p>
+ * Every combination of modifier mask, action and whether the clicked and top inventories are player inventories
+ * is decided once when this class loads, a decision afterwards is a single array read.
+ * <p>
+ * Example usage in a listener of your own:
+ * <pre>{@code
+ *     int mask = Modifier.maskOf(EnumSet.of(Modifier.DISABLE_ITEM_REMOVAL));
+ *     if (ClickPermissions.isDenied(mask, event.getAction(), event.getClickedInventory().getType(), event.getView().getTopInventory().getType()))
+ *         event.setCancelled(true);
+ * }</pre>
+ * @since 2.0.0
+ */
+public final class ClickPermissions {
+    private static final InventoryAction[] ACTIONS = InventoryAction.values();
+
+    private static final EnumSet<InventoryAction> TAKE = EnumSet.of(
+            InventoryAction.PICKUP_ONE,
+            InventoryAction.PICKUP_SOME,
+            InventoryAction.PICKUP_HALF,
+            InventoryAction.PICKUP_ALL,
+            InventoryAction.COLLECT_TO_CURSOR,
+            InventoryAction.HOTBAR_SWAP,
+            InventoryAction.MOVE_TO_OTHER_INVENTORY
+    );
+
+    private static final EnumSet<InventoryAction> PLACE = EnumSet.of(
+            InventoryAction.PLACE_ONE,
+            InventoryAction.PLACE_SOME,
+            InventoryAction.PLACE_ALL
+    );
+
+    private static final EnumSet<InventoryAction> SWAP = EnumSet.of(
+            InventoryAction.HOTBAR_SWAP,
+            InventoryAction.SWAP_WITH_CURSOR,
+            InventoryAction.HOTBAR_MOVE_AND_READD
+    );
+
+    private static final EnumSet<InventoryAction> DROP = EnumSet.of(
+            InventoryAction.DROP_ONE_SLOT,
+            InventoryAction.DROP_ALL_SLOT,
+            InventoryAction.DROP_ONE_CURSOR,
+            InventoryAction.DROP_ALL_CURSOR
+    );
+
+    private static final InventoryType PLAYER = InventoryType.PLAYER;
+
+    // [modifier mask][action ordinal][clicked is player][top is player], flattened
+    private static final boolean[] DENIED = new boolean[(Modifier.ALL_MASK + 1) * ACTIONS.length * 4];
+
+    static {
+        for (int mask = 0; mask <= Modifier.ALL_MASK; mask++) {
+            for (InventoryAction action : ACTIONS) {
+                for (int players = 0; players < 4; players++) {
+                    boolean clickedIsPlayer = (players & 2) != 0, topIsPlayer = (players & 1) != 0;
+                    DENIED[index(mask, action, clickedIsPlayer, topIsPlayer)] = decide(mask, action, clickedIsPlayer, topIsPlayer);
+                }
+            }
+        }
+    }
+
+    private ClickPermissions() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Check if a click is denied by the given modifiers.
+     * @param modifierMask the mask of the modifiers, see {@link Modifier#maskOf(Iterable)}
+     * @param action the action of the click
+     * @param clickedType the type of the clicked inventory
+     * @param topType the type of the top inventory of the view
+     * @return true if the click should be denied
+     */
+    public static boolean isDenied(int modifierMask, @NotNull InventoryAction action, @NotNull InventoryType clickedType, @NotNull InventoryType topType) {
+        return DENIED[index(modifierMask, action, clickedType == PLAYER, topType == PLAYER)];
+    }
+
+    /**
+     * Check if a click is denied by the given modifiers.
+     * @param modifierMask the mask of the modifiers, see {@link Modifier#maskOf(Iterable)}
+     * @param action the action of the click
+     * @param clickedIsPlayer whether the clicked inventory is a player inventory
+     * @param topIsPlayer whether the top inventory of the view is a player inventory
+     * @return true if the click should be denied
+     */
+    public static boolean isDenied(int modifierMask, @NotNull InventoryAction action, boolean clickedIsPlayer, boolean topIsPlayer) {
+        return DENIED[index(modifierMask, action, clickedIsPlayer, topIsPlayer)];
+    }
+
+    private static int index(int mask, InventoryAction action, boolean clickedIsPlayer, boolean topIsPlayer) {
+        return (((mask & Modifier.ALL_MASK) * ACTIONS.length + action.ordinal()) << 2) | (clickedIsPlayer ? 2 : 0) | (topIsPlayer ? 1 : 0);
+    }
+
+    private static boolean decide(int mask, InventoryAction action, boolean clickedIsPlayer, boolean topIsPlayer) {
+        if (mask == Modifier.ALL_MASK) return true;
+
+        boolean irremovable = has(mask, Modifier.DISABLE_ITEM_REMOVAL);
+        return (has(mask, Modifier.DISABLE_ITEM_ADD) && isPlaceItemEvent(action, clickedIsPlayer, topIsPlayer)) ||
+               (irremovable && isTakeItemEvent(action, clickedIsPlayer, topIsPlayer)) ||
+               (has(mask, Modifier.DISABLE_ITEM_SWAP) && isSwapItemEvent(action, clickedIsPlayer, topIsPlayer)) ||
+               (irremovable && isDropItemEvent(action, topIsPlayer)) ||
+               (has(mask, Modifier.DISABLE_ITEM_CLONE) && isOtherEvent(action, topIsPlayer));
+    }
+
+    private static boolean has(int mask, Modifier modifier) {
+        return (mask & modifier.mask()) != 0;
+    }
+
+    private static boolean isTakeItemEvent(InventoryAction action, boolean clickedIsPlayer, boolean topIsPlayer) {
+        if (clickedIsPlayer || topIsPlayer) return false;
+        return action == InventoryAction.MOVE_TO_OTHER_INVENTORY || TAKE.contains(action);
+    }
+
+    private static boolean isPlaceItemEvent(InventoryAction action, boolean clickedIsPlayer, boolean topIsPlayer) {
+        if (action == InventoryAction.MOVE_TO_OTHER_INVENTORY && clickedIsPlayer && !topIsPlayer) return true;
+        return (!clickedIsPlayer && !topIsPlayer) || PLACE.contains(action);
+    }
+
+    private static boolean isSwapItemEvent(InventoryAction action, boolean clickedIsPlayer, boolean topIsPlayer) {
+        return (!clickedIsPlayer && !topIsPlayer) && SWAP.contains(action);
+    }
+
+    private static boolean isDropItemEvent(InventoryAction action, boolean topIsPlayer) {
+        return !topIsPlayer && DROP.contains(action);
+    }
+
+    private static boolean isOtherEvent(InventoryAction action, boolean topIsPlayer) {
+        return (action == InventoryAction.CLONE_STACK || action == InventoryAction.UNKNOWN) && !topIsPlayer;
+    }
+}
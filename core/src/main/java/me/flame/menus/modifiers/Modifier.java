@@ -1,5 +1,7 @@
 package me.flame.menus.modifiers;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.util.EnumSet;
 
 public enum Modifier {
@@ -9,4 +11,28 @@ public enum Modifier {
     DISABLE_ITEM_CLONE;
 
     public static final EnumSet<Modifier> ALL = EnumSet.allOf(Modifier.class);
+
+    /**
+     * The mask with every modifier set.
+     */
+    public static final int ALL_MASK = (1 << values().length) - 1;
+
+    /**
+     * Get the bit of this modifier in a modifier mask.
+     * @return the bit of this modifier
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Get the modifier mask of a set of modifiers, as used by {@link ClickPermissions}.
+     * @param modifiers the modifiers
+     * @return the mask with the bit of every given modifier set
+     */
+    public static int maskOf(@NotNull Iterable<Modifier> modifiers) {
+        int mask = 0;
+        for (Modifier modifier : modifiers) mask |= modifier.mask();
+        return mask;
+    }
 }
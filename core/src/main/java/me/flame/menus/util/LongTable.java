@@ -0,0 +1,152 @@
+package me.flame.menus.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table from a key of one to three {@code long}s to a {@code long} value, without boxing.
+ * <p>
+ * Entries are addressed by their index in the table, which stays valid until the next insertion or removal.
+ * A value of 0 marks an empty entry, so every stored value must be non-zero.
+ * Keys narrower than three longs pass 0 for the unused parts.
+ * <p>
+ * Not thread-safe.
+ * @since 2.0.0
+ */
+@ApiStatus.Internal
+public final class LongTable {
+    private static final int MIN_CAPACITY = 16;
+
+    private final int width;
+
+    // width longs per entry
+    private long[] keys;
+    private long[] values;
+
+    private int size;
+
+    /**
+     * Create an empty table.
+     * @param width the amount of longs making up a key, between 1 and 3
+     */
+    public LongTable(int width) {
+        if (width < 1 || width > 3) {
+            throw new IllegalArgumentException(
+                    "Invalid key width " + width +
+                    "\nFix: Keys are made of 1 to 3 longs."
+            );
+        }
+        this.width = width;
+        this.keys = new long[MIN_CAPACITY * width];
+        this.values = new long[MIN_CAPACITY];
+    }
+
+    /**
+     * Find the entry of a key.
+     * @return the index of the entry, or -1 if the key isn't present
+     */
+    public int indexOf(long first, long second, long third) {
+        if (size == 0) return -1;
+        int mask = values.length - 1;
+        for (int index = hash(first, second, third) & mask; values[index] != 0L; index = (index + 1) & mask) {
+            if (matches(index, first, second, third)) return index;
+        }
+        return -1;
+    }
+
+    /**
+     * Add a key which isn't present yet.
+     * @param value the value of the key, not 0
+     * @return the index of the new entry
+     */
+    public int insert(long first, long second, long third, long value) {
+        if (size + 1 > (values.length >> 1) + (values.length >> 2)) resize(values.length << 1);
+        int index = insertionIndex(first, second, third);
+        int offset = index * width;
+        keys[offset] = first;
+        if (width > 1) keys[offset + 1] = second;
+        if (width > 2) keys[offset + 2] = third;
+        values[index] = value;
+        size++;
+        return index;
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Replace the value of an entry.
+     * @param value the new value, not 0; use {@link #removeAt(int)} to remove the entry
+     */
+    public void setValueAt(int index, long value) {
+        values[index] = value;
+    }
+
+    /**
+     * Remove an entry with backward shift deletion, which keeps every probe chain unbroken without tombstones.
+     * @param index the index of the entry
+     */
+    public void removeAt(int index) {
+        int mask = values.length - 1, hole = index;
+        for (int next = (hole + 1) & mask; values[next] != 0L; next = (next + 1) & mask) {
+            int home = hashAt(next) & mask;
+            // the entry may move into the hole unless its home lies cyclically between the hole and itself
+            if (hole <= next ? (home > hole && home <= next) : (home > hole || home <= next)) continue;
+            System.arraycopy(keys, next * width, keys, hole * width, width);
+            values[hole] = values[next];
+            hole = next;
+        }
+        values[hole] = 0L;
+        size--;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, 0L);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean matches(int index, long first, long second, long third) {
+        int offset = index * width;
+        return keys[offset] == first
+                && (width < 2 || keys[offset + 1] == second)
+                && (width < 3 || keys[offset + 2] == third);
+    }
+
+    private int insertionIndex(long first, long second, long third) {
+        int mask = values.length - 1, index = hash(first, second, third) & mask;
+        while (values[index] != 0L) index = (index + 1) & mask;
+        return index;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys, oldValues = values;
+        keys = new long[capacity * width];
+        values = new long[capacity];
+        for (int index = 0; index < oldValues.length; index++) {
+            if (oldValues[index] == 0L) continue;
+            int offset = index * width;
+            long second = width > 1 ? oldKeys[offset + 1] : 0L, third = width > 2 ? oldKeys[offset + 2] : 0L;
+            int moved = insertionIndex(oldKeys[offset], second, third);
+            System.arraycopy(oldKeys, offset, keys, moved * width, width);
+            values[moved] = oldValues[index];
+        }
+    }
+
+    private int hashAt(int index) {
+        int offset = index * width;
+        return hash(keys[offset], width > 1 ? keys[offset + 1] : 0L, width > 2 ? keys[offset + 2] : 0L);
+    }
+
+    private static int hash(long first, long second, long third) {
+        long hash = (first * 0x9E3779B97F4A7C15L) ^ (second * 0xC2B2AE3D27D4EB4FL) ^ (third * 0x165667B19E3779F9L);
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+}
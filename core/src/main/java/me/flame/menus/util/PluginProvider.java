@@ -0,0 +1,41 @@
+package me.flame.menus.util;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Provides the plugin WoodyMenus registers its listeners and schedules its tasks with.
+ * <p>
+ * By default it's the plugin whose class loader loaded WoodyMenus.
+ * Environments where that isn't a plugin class loader (benchmarks, embedded test servers)
+ * must {@link #provide(Plugin)} one before the first menu is created.
+ * @since 2.0.0
+ */
+public final class PluginProvider {
+    private static volatile Plugin plugin;
+
+    private PluginProvider() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Set the plugin WoodyMenus uses, must be called before the first menu is created.
+     * @param plugin the plugin
+     */
+    public static void provide(@NotNull Plugin plugin) {
+        PluginProvider.plugin = plugin;
+    }
+
+    /**
+     * Get the plugin WoodyMenus uses.
+     * @return the provided plugin, or the plugin that loaded WoodyMenus
+     */
+    @NotNull
+    public static Plugin get() {
+        Plugin provided = plugin;
+        if (provided == null) plugin = provided = JavaPlugin.getProvidingPlugin(PluginProvider.class);
+        return provided;
+    }
+}